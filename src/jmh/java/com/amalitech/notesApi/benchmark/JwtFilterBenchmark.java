@@ -0,0 +1,73 @@
+package com.amalitech.notesApi.benchmark;
+
+import com.amalitech.notesApi.cache.CacheInvalidationBus;
+import com.amalitech.notesApi.cache.InMemoryCacheInvalidationTransport;
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.repository.UserRepository;
+import com.amalitech.notesApi.security.AuthenticatedUser;
+import com.amalitech.notesApi.security.JwtFilter;
+import com.amalitech.notesApi.security.JwtUtil;
+import com.amalitech.notesApi.security.UserIdentityCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of the JWT filter for a token carrying the user id claim,
+ * which authenticates from the claims plus a cached token version check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtFilter jwtFilter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = new JwtUtil(JwtUtilBenchmark.SECRET, 3_600_000L, "benchmark", cacheEnabled, 10_000);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CacheInvalidationBus invalidationBus = new CacheInvalidationBus(new InMemoryCacheInvalidationTransport(), meterRegistry);
+        // Claims-based tokens only look up the token version by id, which the cache serves after the first call
+        User user = JwtUtilBenchmark.benchmarkUser();
+        AuthenticatedUser identity = new AuthenticatedUser(user.getId(), user.getEmail(), user.getTokenVersion());
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findIdentityById")) {
+                        return Optional.of(identity);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        jwtFilter = new JwtFilter(jwtUtil, new UserIdentityCache(userRepository, 1, Duration.ofMinutes(1), invalidationBus),
+                meterRegistry);
+        authorization = "Bearer " + jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/notes");
+        request.addHeader("Authorization", authorization);
+        try {
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
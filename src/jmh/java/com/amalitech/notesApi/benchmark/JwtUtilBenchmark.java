@@ -0,0 +1,53 @@
+package com.amalitech.notesApi.benchmark;
+
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification cost, with and without the verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-benchmark-secret-key-benchmark-secret-key";
+    static final String EMAIL = "bench@example.com";
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000L, "benchmark", cacheEnabled, 10_000);
+        user = benchmarkUser();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, EMAIL);
+    }
+
+    static User benchmarkUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        return user;
+    }
+}
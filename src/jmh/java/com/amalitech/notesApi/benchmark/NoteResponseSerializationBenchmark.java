@@ -0,0 +1,49 @@
+package com.amalitech.notesApi.benchmark;
+
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of note listings as returned by the list endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int size;
+
+    @Param({"200", "4000"})
+    public int contentLength;
+
+    private JsonMapper jsonMapper;
+    private NotePageResponse page;
+
+    @Setup
+    public void setup() {
+        jsonMapper = JsonMapper.builder().build();
+        LocalDateTime now = LocalDateTime.now();
+        String content = "x".repeat(contentLength);
+        List<NoteResponse> notes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            notes.add(new NoteResponse(id, "Note " + id, content, now, now));
+        }
+        page = new NotePageResponse(notes, "next-cursor");
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
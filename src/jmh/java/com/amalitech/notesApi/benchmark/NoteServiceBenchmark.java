@@ -0,0 +1,106 @@
+package com.amalitech.notesApi.benchmark;
+
+import com.amalitech.notesApi.NotesApiApplication;
+import com.amalitech.notesApi.cache.NoteCache;
+import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.repository.UserRepository;
+import com.amalitech.notesApi.security.AuthenticatedUser;
+import com.amalitech.notesApi.security.PasswordUtils;
+import com.amalitech.notesApi.service.NoteService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NoteService operations through the full Spring stack (transactions, cache, search index)
+ * against an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteServiceBenchmark {
+
+    private static final int SEEDED_NOTES = 200;
+
+    private ConfigurableApplicationContext context;
+    private NoteService noteService;
+    private NoteCache noteCache;
+    private Long userId;
+    private Long noteId;
+    private NoteRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = SpringApplication.run(NotesApiApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        noteService = context.getBean(NoteService.class);
+        noteCache = context.getBean(NoteCache.class);
+
+        User user = new User();
+        user.setEmail("bench@example.com");
+        user.setPassword(PasswordUtils.hashPassword("benchmark-password", PasswordUtils.MIN_COST));
+        user = context.getBean(UserRepository.class).save(user);
+        userId = user.getId();
+
+        // JMH may run setup and measurement on different threads
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, user.getEmail(), user.getTokenVersion()), null, List.of()));
+
+        request = new NoteRequest("Benchmark note", "Benchmark content ".repeat(20));
+        Note note = null;
+        for (int i = 0; i < SEEDED_NOTES; i++) {
+            note = noteService.createNote(request);
+        }
+        noteId = note.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Long createAndDeleteNote() {
+        Long id = noteService.createNote(request).getId();
+        noteService.deleteNote(id);
+        return id;
+    }
+
+    @Benchmark
+    public NoteResponse getNoteByIdCached() {
+        return noteService.getNoteById(noteId);
+    }
+
+    @Benchmark
+    public NoteResponse getNoteByIdFromDatabase() {
+        noteCache.evict(userId, noteId);
+        return noteService.getNoteById(noteId);
+    }
+
+    @Benchmark
+    public NoteResponse updateNote() {
+        return noteService.updateNote(noteId, request);
+    }
+
+    @Benchmark
+    public NotePageResponse listFirstPage() {
+        return noteService.listNotes(null, 20);
+    }
+}
@@ -0,0 +1,41 @@
+package com.amalitech.notesApi.benchmark;
+
+import com.amalitech.notesApi.security.PasswordUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt cost per hash and verify at the configured work factors. Each call takes tens to
+ * hundreds of milliseconds, so iterations are short and few.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordUtilsBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int cost;
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        hash = PasswordUtils.hashPassword(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordUtils.hashPassword(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return PasswordUtils.verifyPassword(PASSWORD, hash);
+    }
+}
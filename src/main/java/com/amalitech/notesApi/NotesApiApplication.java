@@ -3,7 +3,9 @@ package com.amalitech.notesApi;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// Built with -Preactive, R2DBC is on the classpath too; its ConnectionFactory would make the DataSource
+// auto-configuration back off, taking JPA and its repositories with it
+@SpringBootApplication(excludeName = "org.springframework.boot.r2dbc.autoconfigure.R2dbcAutoConfiguration")
 public class NotesApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,33 @@
+package com.amalitech.notesApi.cache;
+
+/**
+ * One evicted cache entry, as sent between nodes. {@code origin} identifies the sending node so it
+ * can ignore its own messages; {@code key} is the cache's own string form of the entry key.
+ */
+public record CacheInvalidation(String origin, String cache, String key) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Wire form {@code origin|cache|key}. The key comes last, so it may itself contain the separator.
+     */
+    public String encode() {
+        return origin + SEPARATOR + cache + SEPARATOR + key;
+    }
+
+    /**
+     * Parses the wire form, or returns null for a message this version does not understand.
+     */
+    public static CacheInvalidation decode(String message) {
+        if (message == null) {
+            return null;
+        }
+        int first = message.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : message.indexOf(SEPARATOR, first + 1);
+        if (first <= 0 || second <= first + 1) {
+            return null;
+        }
+        return new CacheInvalidation(message.substring(0, first), message.substring(first + 1, second),
+                message.substring(second + 1));
+    }
+}
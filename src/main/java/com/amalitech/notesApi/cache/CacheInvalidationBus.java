@@ -0,0 +1,91 @@
+package com.amalitech.notesApi.cache;
+
+import com.amalitech.notesApi.transaction.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps local caches on every node in step. A cache evicts its own entry directly and publishes the
+ * key here; the other nodes receive it through the {@link CacheInvalidationTransport} and evict the
+ * same key. Inside a transaction the message is only delivered once it commits, so other nodes cannot
+ * reload the old row, and nothing is delivered for a rollback: either the transport sends it as part of
+ * the transaction, or the bus hands it over after the commit.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheInvalidationTransport transport;
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+
+    public CacheInvalidationBus(CacheInvalidationTransport transport, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.sentCounter = invalidationCounter(meterRegistry, "sent");
+        this.receivedCounter = invalidationCounter(meterRegistry, "received");
+        transport.listen(new CacheInvalidationTransport.Listener() {
+            @Override
+            public void onMessage(String message) {
+                receive(message);
+            }
+
+            @Override
+            public void onGap() {
+                subscribers.values().forEach(subscriber -> subscriber.evictAll().run());
+            }
+        });
+    }
+
+    /**
+     * Registers how to evict one key of the named cache, and how to drop all of it when messages were missed.
+     */
+    public void subscribe(String cache, Consumer<String> evict, Runnable evictAll) {
+        subscribers.put(cache, new Subscriber(evict, evictAll));
+    }
+
+    /**
+     * Tells the other nodes to evict the key, after the current transaction commits if there is one.
+     */
+    public void publish(String cache, String key) {
+        CacheInvalidation invalidation = new CacheInvalidation(nodeId, cache, key);
+        if (transport.sendsWithTransaction()) {
+            transport.send(invalidation.encode());
+            AfterCommit.run(sentCounter::increment);
+        } else {
+            AfterCommit.run(() -> {
+                transport.send(invalidation.encode());
+                sentCounter.increment();
+            });
+        }
+    }
+
+    private void receive(String message) {
+        CacheInvalidation invalidation = CacheInvalidation.decode(message);
+        // Our own messages come back too; the local entry was already handled by the sender
+        if (invalidation == null || nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        Subscriber subscriber = subscribers.get(invalidation.cache());
+        if (subscriber != null) {
+            subscriber.evict().accept(invalidation.key());
+            receivedCounter.increment();
+        }
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("notes.cache.invalidations")
+                .description("Cache invalidations exchanged with other nodes")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private record Subscriber(Consumer<String> evict, Runnable evictAll) {
+    }
+}
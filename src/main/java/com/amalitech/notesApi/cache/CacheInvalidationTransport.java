@@ -0,0 +1,31 @@
+package com.amalitech.notesApi.cache;
+
+/**
+ * Carries encoded {@link CacheInvalidation} messages to every node, including the sender.
+ * Delivery is best effort; the cache TTLs bound how long a lost message can leave an entry stale.
+ */
+public interface CacheInvalidationTransport {
+
+    void send(String message);
+
+    /**
+     * Whether {@link #send} joins the caller's transaction, so the message is only delivered once it commits.
+     * Other transports are only called after the commit.
+     */
+    default boolean sendsWithTransaction() {
+        return false;
+    }
+
+    void listen(Listener listener);
+
+    interface Listener {
+
+        void onMessage(String message);
+
+        /**
+         * Messages may have been missed, e.g. while the transport was reconnecting.
+         */
+        default void onGap() {
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.amalitech.notesApi.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers messages synchronously to listeners in the same JVM. On a single node this is a loopback;
+ * tests share one instance between several buses to stand in for several nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.cache.invalidation.transport", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(String message) {
+        for (Listener listener : listeners) {
+            listener.onMessage(message);
+        }
+    }
+
+    @Override
+    public void listen(Listener listener) {
+        listeners.add(listener);
+    }
+}
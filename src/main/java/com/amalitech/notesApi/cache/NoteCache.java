@@ -0,0 +1,97 @@
+package com.amalitech.notesApi.cache;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.transaction.AfterCommit;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of single notes. Entries are keyed by owner as well as note id,
+ * so a cached note is only ever served back to the user who loaded it. Writes through
+ * {@link #put} and {@link #evict} take effect once the surrounding transaction commits,
+ * and are broadcast so other nodes evict their copy.
+ */
+@Component
+public class NoteCache {
+
+    public static final String CACHE_NAME = "notes";
+
+    // Power of two, so a key's stripe is a mask of its hash
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache cache;
+    private final CacheInvalidationBus invalidationBus;
+    // Bumped before every write to a key's entry, so a fill can tell it raced with one; striped to stay bounded
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public NoteCache(CacheManager cacheManager, CacheInvalidationBus invalidationBus) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CACHE_NAME, key -> evictLocally(Key.decode(key)), this::clearLocally);
+    }
+
+    public NoteResponse get(Long userId, Long noteId, Supplier<NoteResponse> loader) {
+        Key key = new Key(userId, noteId);
+        NoteResponse cached = cache.get(key, NoteResponse.class);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generations.get(stripe(key));
+        NoteResponse loaded = loader.get();
+        cache.put(key, loaded);
+        // A write that committed while loading may have been overwritten by the row read before it;
+        // dropping the fill costs one more miss (or a write's own entry, if it got in after this put)
+        if (generations.get(stripe(key)) != generation) {
+            cache.evict(key);
+        }
+        return loaded;
+    }
+
+    public void put(Long userId, NoteResponse note) {
+        Key key = new Key(userId, note.id());
+        AfterCommit.run(() -> {
+            generations.incrementAndGet(stripe(key));
+            cache.put(key, note);
+        });
+        invalidationBus.publish(CACHE_NAME, key.encode());
+    }
+
+    public void evict(Long userId, Long noteId) {
+        Key key = new Key(userId, noteId);
+        // Evicting before commit would let a concurrent read cache the old row again
+        AfterCommit.run(() -> evictLocally(key));
+        invalidationBus.publish(CACHE_NAME, key.encode());
+    }
+
+    private void evictLocally(Key key) {
+        generations.incrementAndGet(stripe(key));
+        cache.evict(key);
+    }
+
+    private void clearLocally() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.clear();
+    }
+
+    private static int stripe(Key key) {
+        return key.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    record Key(Long userId, Long noteId) {
+
+        String encode() {
+            return userId + ":" + noteId;
+        }
+
+        static Key decode(String value) {
+            int separator = value.indexOf(':');
+            return new Key(Long.valueOf(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.amalitech.notesApi.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts invalidations with PostgreSQL {@code NOTIFY} and receives them with {@code LISTEN}.
+ * A send runs on the caller's transaction connection, and PostgreSQL delivers the notification when
+ * that transaction commits, so a writer never needs a second pooled connection. The listener holds
+ * its own connection, opened outside the pool and polled by a dedicated thread.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.cache.invalidation.transport", havingValue = "postgres")
+public class PostgresCacheInvalidationTransport implements CacheInvalidationTransport, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCacheInvalidationTransport.class);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final int pollMillis;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresCacheInvalidationTransport(
+            JdbcTemplate jdbcTemplate,
+            @Value("${notes.cache.invalidation.url:${spring.datasource.url:}}") String url,
+            @Value("${notes.cache.invalidation.username:${spring.datasource.username:}}") String username,
+            @Value("${notes.cache.invalidation.password:${spring.datasource.password:}}") String password,
+            @Value("${notes.cache.invalidation.channel:notes_cache_invalidation}") String channel,
+            @Value("${notes.cache.invalidation.poll-interval:500ms}") Duration pollInterval) {
+        // LISTEN takes an identifier, not a bind parameter
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        if (url.isBlank()) {
+            throw new IllegalArgumentException("notes.cache.invalidation.url must be set to listen for invalidations");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollMillis = (int) pollInterval.toMillis();
+    }
+
+    @Override
+    public void send(String message) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) row -> {
+            }, channel, message);
+        } catch (DataAccessException e) {
+            // The failed statement has aborted the caller's transaction; let it roll back visibly
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            // Other nodes fall back to their cache TTL for this entry
+            log.warn("Could not publish cache invalidation on {}", channel, e);
+        }
+    }
+
+    @Override
+    public boolean sendsWithTransaction() {
+        return true;
+    }
+
+    @Override
+    public void listen(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(this::listenLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        boolean reconnecting = false;
+        while (running) {
+            // Outside the pool: it is held for as long as the application runs
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnecting) {
+                    // Anything sent while we were away is lost; let the caches start over
+                    log.info("Listening on {} again", channel);
+                    listeners.forEach(Listener::onGap);
+                }
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost cache invalidation listener on {}, retrying in {}s",
+                        channel, RECONNECT_DELAY.toSeconds(), e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String message) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onMessage(message);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation listener failed for {}", message, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.amalitech.notesApi.config;
+
+import com.amalitech.notesApi.cache.NoteCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${notes.cache.maximum-size:10000}") long maximumSize,
+            @Value("${notes.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                // Hit, miss and eviction counts are published through the actuator cache metrics
+                .recordStats());
+        // Declared up front so the caches exist (and are instrumented) before first use
+        cacheManager.setCacheNames(List.of(NoteCache.CACHE_NAME));
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,30 @@
+package com.amalitech.notesApi.config;
+
+import com.amalitech.notesApi.security.JwtUtil;
+import com.amalitech.notesApi.security.UserIdentityCache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Spring-managed caches are instrumented by Boot; the JWT claims cache is a plain Caffeine cache
+    @Bean
+    public MeterBinder jwtClaimsCacheMetrics(JwtUtil jwtUtil) {
+        return registry -> {
+            if (jwtUtil.getVerifiedClaimsCache() != null) {
+                CaffeineCacheMetrics.monitor(registry, jwtUtil.getVerifiedClaimsCache(), "jwtClaims");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder userIdentityCacheMetrics(UserIdentityCache userIdentityCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, userIdentityCache.getCache(), UserIdentityCache.CACHE_NAME);
+            CaffeineCacheMetrics.monitor(registry, userIdentityCache.getByIdCache(), UserIdentityCache.BY_ID_CACHE_NAME);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.amalitech.notesApi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Has PostgreSQL (14+, built with LZ4) compress large note content with LZ4 instead of pglz. Compression
+ * happens inside TOAST, so every query, the full-text index and the previews still see plain text; values
+ * are compressed as they are written, rows stored earlier keep pglz until they are next updated.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.content.compression", havingValue = "lz4")
+public class NoteContentCompression {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NoteContentCompression(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs after Hibernate has created or updated the notes table; only changes the column's metadata
+    @EventListener(ApplicationReadyEvent.class)
+    public void useLz4() {
+        jdbcTemplate.execute("ALTER TABLE notes ALTER COLUMN content SET COMPRESSION lz4");
+    }
+}
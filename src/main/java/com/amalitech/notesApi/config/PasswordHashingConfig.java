@@ -0,0 +1,34 @@
+package com.amalitech.notesApi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * Dedicated pool for BCrypt work so login and registration bursts cannot tie up
+     * the servlet workers that serve note requests. The queue is bounded and
+     * overflow is rejected immediately rather than queued behind the backlog.
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${security.password.executor.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${security.password.executor.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
@@ -1,6 +1,11 @@
 package com.amalitech.notesApi.config;
 
 import com.amalitech.notesApi.security.JwtFilter;
+import com.amalitech.notesApi.security.PasswordHasher;
+import com.amalitech.notesApi.security.RateLimitFilter;
+import com.amalitech.notesApi.security.RateLimitProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,6 +14,7 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -18,12 +24,20 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
+    // Liveness probes: answered without touching the security chain, JWT parsing or rate limiting
+    private static final String[] HEALTH_ENDPOINTS = {"/api/v1/notes/health", "/actuator/health"};
+    // Scraped by Prometheus, which carries no user token; served on the internal management port only
+    private static final String PROMETHEUS_ENDPOINT = "/actuator/prometheus";
+
     private final JwtFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtFilter jwtFilter) {
+    public SecurityConfig(JwtFilter jwtFilter, RateLimitFilter rateLimitFilter) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -43,25 +57,65 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints: API docs, Swagger UI, login/registration, and GraphQL entry point
                         .requestMatchers("/api/v1/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, PROMETHEUS_ENDPOINT).permitAll()
+
+                        // Any other actuator endpoint is read-only and needs a token
+                        .requestMatchers(HttpMethod.GET, "/actuator/**").authenticated()
+                        .requestMatchers("/actuator/**").denyAll()
 
                         // Everything else requires authentication; fine-grained access is handled via @PreAuthorize
                         .anyRequest().authenticated()
                 )
 
                 // JWT filter before username/password auth filter
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+
+                // Rate limit once the caller is known, so buckets can be keyed by user id
+                .addFilterAfter(rateLimitFilter, JwtFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Health checks carry no credentials and reveal nothing per-user, so they bypass the filter chain
+     * entirely instead of going through it with {@code permitAll()}.
+     */
+    @Bean
+    public WebSecurityCustomizer healthCheckSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers(HttpMethod.GET, HEALTH_ENDPOINTS);
+    }
+
+    /**
+     * Like the rate limiter, the JWT filter must only run inside the security chain; otherwise the
+     * servlet container would also apply it to the ignored health endpoints.
+     */
+    @Bean
+    public FilterRegistrationBean<JwtFilter> jwtFilterRegistration(JwtFilter filter) {
+        FilterRegistrationBean<JwtFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    /**
+     * The rate limiter only belongs in the security chain; as a bean it would otherwise also be
+     * registered with the servlet container and run before the caller is authenticated.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHasher passwordHasher) {
+        // Same work factor as the hashes written by UserService
+        return new BCryptPasswordEncoder(passwordHasher.getCost());
     }
 
 }
@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @AllArgsConstructor
@@ -19,16 +21,19 @@ public class AuthController {
     private final UserServiceInterface userService;
 
 
+    // Both endpoints complete asynchronously once the password hashing pool has done the BCrypt work,
+    // so the servlet thread is released while the hash is computed
+
     @PostMapping("/register")
-    public ResponseEntity<String> register(@RequestBody @Valid AuthRequest request) {
+    public CompletableFuture<ResponseEntity<String>> register(@RequestBody @Valid AuthRequest request) {
 
-        userService.createUser(request);
-        return ResponseEntity.ok().body("User registered successfully");
+        return userService.createUser(request)
+                .thenApply(created -> ResponseEntity.ok().body("User registered successfully"));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthRequest request) {
-        AuthResponse response = userService.loginUser(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody @Valid AuthRequest request) {
+        return userService.loginUser(request)
+                .thenApply(ResponseEntity::ok);
     }
 }
@@ -1,26 +1,54 @@
 package com.amalitech.notesApi.controller;
 
+import com.amalitech.notesApi.dto.request.NoteBatchRequest;
 import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NoteBatchResponse;
+import com.amalitech.notesApi.dto.response.NoteChangesResponse;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
 import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.dto.response.NoteSearchResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryPageResponse;
 import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.service.NoteBatchService;
+import com.amalitech.notesApi.service.NoteExportService;
 import com.amalitech.notesApi.service.NoteService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @AllArgsConstructor
 @RestController
 @RequestMapping("api/v1/notes")
 public class NoteController {
+
+    // A note can be revalidated against its ETag, but must never land in a shared cache
+    private static final CacheControl NOTE_CACHE = CacheControl.noCache().cachePrivate();
+    // Listings and search results change with every write, so they are never stored
+    private static final CacheControl LISTING_CACHE = CacheControl.noStore().cachePrivate();
+    // Responses depend on who is asking and on the negotiated encoding
+    private static final String[] VARY = {HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_ENCODING};
+
+    // Built once; health probes skip the security chain and get this instance back every time
+    private static final ResponseEntity<String> HEALTHY = ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .contentType(MediaType.TEXT_PLAIN)
+            .body("Notes API is running");
+
     private final NoteService noteService;
+    private final NoteExportService noteExportService;
+    private final NoteBatchService noteBatchService;
 
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
-        return ResponseEntity.ok("Notes API is running");
+        return HEALTHY;
     }
 
     @PostMapping
@@ -29,52 +57,100 @@ public class NoteController {
 
         Note note = noteService.createNote(request);
 
-        NoteResponse response = new NoteResponse(note.getId(), note.getTitle(), note.getContent(), note.getCreatedAt(), note.getUpdatedAt());
+        NoteResponse response = NoteResponse.from(note);
 
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), response).body(response);
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @PostMapping("/batch")
+    public ResponseEntity<NoteBatchResponse> applyBatch(
+            @Valid @RequestBody NoteBatchRequest request) {
+        NoteBatchResponse response = noteBatchService.apply(request);
+        HttpStatus status = response.applied() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_CONTENT;
+        return new ResponseEntity<>(response, status);
     }
 
     @GetMapping
-    public ResponseEntity<List<Note>> getNotes() {
-        List<Note> notes = noteService.getAllNotes();
-        if (notes.isEmpty()) {
-            return ResponseEntity.noContent().build();
+    public ResponseEntity<NotePageResponse> getNotes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        NotePageResponse page = noteService.listNotes(cursor, size);
+        if (page.notes().isEmpty()) {
+            return listing(ResponseEntity.status(HttpStatus.NO_CONTENT)).build();
         }
-        return ResponseEntity.ok(notes);
+        return listing(ResponseEntity.ok()).body(page);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Note> getNote(@PathVariable Long id) {
-        Note note = noteService.getNoteById(id);
-        if (note == null) {
-            return ResponseEntity.notFound().build();
+    @GetMapping("/summary")
+    public ResponseEntity<NoteSummaryPageResponse> getNoteSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        NoteSummaryPageResponse page = noteService.listNoteSummaries(cursor, size);
+        if (page.notes().isEmpty()) {
+            return listing(ResponseEntity.status(HttpStatus.NO_CONTENT)).build();
         }
-        return ResponseEntity.ok(note);
+        return listing(ResponseEntity.ok()).body(page);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<NoteChangesResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer size) {
+        return listing(ResponseEntity.ok()).body(noteService.listChanges(since, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<NoteSearchResponse> searchNotes(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return listing(ResponseEntity.ok()).body(noteService.searchNotes(query, page, size));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportNotes(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        noteExportService.exportNotes(response.getOutputStream());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<NoteResponse> getNote(@PathVariable Long id) {
+        NoteResponse note = noteService.getNoteById(id);
+        // A matching If-None-Match is answered with a 304 carrying these headers, and no body is written
+        return withETag(ResponseEntity.ok(), note)
+                .cacheControl(NOTE_CACHE)
+                .varyBy(VARY)
+                .body(note);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<NoteResponse> updateNote(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody NoteRequest request) {
 
-        Note updated = noteService.updateNote(id, request);
-
-        NoteResponse response = new NoteResponse(
-                updated.getId(),
-                updated.getTitle(),
-                updated.getContent(),
-                updated.getCreatedAt(),
-                updated.getUpdatedAt()
-        );
+        NoteResponse response = noteService.updateNote(id, request, NoteETags.ifMatch(ifMatch));
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return withETag(ResponseEntity.ok(), response).body(response);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteNote(@PathVariable Long id) {
-        noteService.deleteNote(id);
+    public ResponseEntity<String> deleteNote(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        noteService.deleteNote(id, NoteETags.ifMatch(ifMatch));
         return ResponseEntity.ok("Note with id " + id + " deleted successfully");
     }
 
+    private static ResponseEntity.BodyBuilder listing(ResponseEntity.BodyBuilder builder) {
+        return builder.cacheControl(LISTING_CACHE).varyBy(VARY);
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, NoteResponse note) {
+        String eTag = NoteETags.of(note);
+        return eTag == null ? builder : builder.eTag(eTag);
+    }
+
 }
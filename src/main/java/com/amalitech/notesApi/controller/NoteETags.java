@@ -0,0 +1,62 @@
+package com.amalitech.notesApi.controller;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.service.IfMatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Note ETags are the quoted note version. The version changes on every write, so the tag is a
+ * strong validator for the note representation.
+ */
+final class NoteETags {
+
+    private NoteETags() {
+    }
+
+    static String of(NoteResponse note) {
+        return note.version() == null ? null : "\"" + note.version() + "\"";
+    }
+
+    /**
+     * The precondition an If-Match header sets: {@code *} or the list of versions it names, or null when the
+     * write is unconditional (no header). A weak prefix is tolerated because response compression may weaken
+     * the tag the client was given.
+     */
+    static IfMatch ifMatch(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        if (header.trim().equals("*")) {
+            return IfMatch.ANY;
+        }
+        // Our tags are quoted numbers, so no comma can sit inside one
+        List<Long> versions = new ArrayList<>();
+        for (String element : header.split(",")) {
+            String tag = element.trim();
+            if (tag.isEmpty()) {
+                continue;
+            }
+            versions.add(version(tag));
+        }
+        if (versions.isEmpty()) {
+            throw new IllegalArgumentException("Invalid If-Match header");
+        }
+        return new IfMatch(List.copyOf(versions));
+    }
+
+    private static Long version(String tag) {
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Invalid If-Match header");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header");
+        }
+    }
+}
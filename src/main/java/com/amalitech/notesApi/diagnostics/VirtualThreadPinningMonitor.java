@@ -0,0 +1,104 @@
+package com.amalitech.notesApi.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically because they block
+ * inside a {@code synchronized} block or a native frame in the JDBC driver or Hibernate. Listens to
+ * the JFR {@code jdk.VirtualThreadPinned} event in-process, logs the blocking stack and counts each
+ * occurrence as {@code notes.virtual-threads.pinned}.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.diagnostics.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final int MAX_LOGGED_FRAMES = 20;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private RecordingStream stream;
+
+    @Autowired
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${notes.diagnostics.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("notes.virtual-threads.pinned")
+                .description("Virtual threads that blocked while pinned to a carrier thread")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("notes.virtual-threads.pinned.duration")
+                .description("How long pinned virtual threads held their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        log.warn("Virtual thread {} pinned its carrier for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(),
+                format(event.getStackTrace()));
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder();
+        int frames = 0;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames++ == MAX_LOGGED_FRAMES) {
+                out.append(System.lineSeparator()).append("\t...");
+                break;
+            }
+            out.append(System.lineSeparator())
+                    .append("\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.amalitech.notesApi.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record NoteBatchRequest(
+        @NotEmpty @Size(max = NoteBatchRequest.MAX_OPERATIONS) List<@NotNull @Valid Operation> operations) {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * One change in a batch. {@code id} is required for UPDATE and DELETE;
+     * {@code title} and {@code content} are required for CREATE and UPDATE.
+     */
+    public record Operation(@NotNull Action action, Long id, String title, String content) {
+    }
+}
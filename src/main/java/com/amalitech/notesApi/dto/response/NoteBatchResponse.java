@@ -0,0 +1,15 @@
+package com.amalitech.notesApi.dto.response;
+
+import com.amalitech.notesApi.dto.request.NoteBatchRequest;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch. Either every operation was applied ({@code applied} is true) or none was,
+ * in which case the failing items carry an error and the rest report 424 (Failed Dependency).
+ */
+public record NoteBatchResponse(boolean applied, List<Item> results) {
+
+    public record Item(int index, NoteBatchRequest.Action action, Long id, int status, NoteResponse note, String error) {
+    }
+}
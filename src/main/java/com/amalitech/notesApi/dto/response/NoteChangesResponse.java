@@ -0,0 +1,10 @@
+package com.amalitech.notesApi.dto.response;
+
+import java.util.List;
+
+/**
+ * Changes since a watermark. Clients apply {@code updated} and {@code deleted}, store {@code since}
+ * and pass it back on the next call; while {@code hasMore} is true they should call again straight away.
+ */
+public record NoteChangesResponse(List<NoteResponse> updated, List<Long> deleted, String since, boolean hasMore) {
+}
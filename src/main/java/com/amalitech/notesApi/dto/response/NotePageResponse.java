@@ -0,0 +1,6 @@
+package com.amalitech.notesApi.dto.response;
+
+import java.util.List;
+
+public record NotePageResponse(List<NoteResponse> notes, String nextCursor) {
+}
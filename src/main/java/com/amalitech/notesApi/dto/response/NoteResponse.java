@@ -1,4 +1,6 @@
 package com.amalitech.notesApi.dto.response;
+import com.amalitech.notesApi.models.Note;
+
 import java.time.LocalDateTime;
 
 public record NoteResponse(
@@ -6,6 +8,14 @@ public record NoteResponse(
      String title,
      String content,
      LocalDateTime createdAt,
-     LocalDateTime updatedAt
+     LocalDateTime updatedAt,
+     Long version
 ) {
+    public NoteResponse(Long id, String title, String content, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, content, createdAt, updatedAt, null);
+    }
+
+    public static NoteResponse from(Note note) {
+        return new NoteResponse(note.getId(), note.getTitle(), note.getContent(), note.getCreatedAt(), note.getUpdatedAt(), note.getVersion());
+    }
 }
@@ -0,0 +1,6 @@
+package com.amalitech.notesApi.dto.response;
+
+import java.util.List;
+
+public record NoteSearchResponse(List<NoteResponse> notes, int page, int size, boolean hasNext) {
+}
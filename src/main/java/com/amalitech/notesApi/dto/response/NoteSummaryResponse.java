@@ -0,0 +1,17 @@
+package com.amalitech.notesApi.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * A note without its body: {@code contentLength} is in characters and {@code preview} is the start of the
+ * content with whitespace collapsed. The full content comes from {@code GET /api/v1/notes/{id}}.
+ */
+public record NoteSummaryResponse(
+        Long id,
+        String title,
+        Integer contentLength,
+        String preview,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -2,8 +2,10 @@ package com.amalitech.notesApi.exceptions;
 
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,6 +16,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
@@ -53,6 +56,42 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, message, null, request);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailed(PreconditionFailedException ex, WebRequest request) {
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex.getMessage(), request);
+    }
+
+    // Two entity writes (e.g. batches) raced on the same note; the client should re-read and retry
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        return buildResponse(HttpStatus.CONFLICT, "Conflict", "The note was modified concurrently, please retry", request);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage(), request);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+
+    // Failures from the password hashing pool arrive wrapped when a future is joined; answer them as if
+    // they had been thrown directly instead of letting the generic handler turn them into a 500
+    @ExceptionHandler(CompletionException.class)
+    public ResponseEntity<Map<String, Object>> handleCompletion(CompletionException ex, WebRequest request) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof TooManyRequestsException tooManyRequests) {
+            return handleTooManyRequests(tooManyRequests, request);
+        }
+        if (cause instanceof IllegalArgumentException illegalArgument) {
+            return handleIllegalArgument(illegalArgument, request);
+        }
+        if (cause instanceof NoteNotFoundException noteNotFound) {
+            return handleNoteNotFound(noteNotFound, request);
+        }
+        return handleGenericException(cause instanceof Exception exception ? exception : ex, request);
+    }
+
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<Map<String, Object>> handleNoResourceFound(NoResourceFoundException ex, WebRequest request) {
         return buildResponse(HttpStatus.NOT_FOUND, "Resource Not Found", ex.getMessage(), request);
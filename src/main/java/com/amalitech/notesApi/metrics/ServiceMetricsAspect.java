@@ -0,0 +1,98 @@
+package com.amalitech.notesApi.metrics;
+
+import com.amalitech.notesApi.exceptions.InvalidNoteException;
+import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import com.amalitech.notesApi.exceptions.PreconditionFailedException;
+import com.amalitech.notesApi.exceptions.TooManyRequestsException;
+import com.amalitech.notesApi.exceptions.UserExists;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolationException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Times every public method of the service layer as {@code notes.service.calls}, tagged with the
+ * class, method and an outcome derived from the same exceptions GlobalExceptionHandler maps.
+ * Asynchronous methods are timed until their future completes, not until they return.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "notes.service.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.amalitech.notesApi.service..*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            stop(sample, className, method, outcome(ex));
+            throw ex;
+        }
+
+        if (result instanceof CompletableFuture<?> future) {
+            return future.whenComplete((value, ex) ->
+                    stop(sample, className, method, ex == null ? "success" : outcome(ex)));
+        }
+        stop(sample, className, method, "success");
+        return result;
+    }
+
+    static String outcome(Throwable ex) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof NoteNotFoundException || cause instanceof UsernameNotFoundException) {
+            return "not-found";
+        }
+        if (cause instanceof AccessDeniedException) {
+            return "access-denied";
+        }
+        if (cause instanceof InvalidNoteException
+                || cause instanceof IllegalArgumentException
+                || cause instanceof ConstraintViolationException) {
+            return "validation-error";
+        }
+        if (cause instanceof UserExists || cause instanceof ObjectOptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (cause instanceof PreconditionFailedException) {
+            return "precondition-failed";
+        }
+        if (cause instanceof TooManyRequestsException) {
+            return "rejected";
+        }
+        return "error";
+    }
+
+    private void stop(Timer.Sample sample, String className, String method, String outcome) {
+        sample.stop(Timer.builder(METRIC_NAME)
+                .description("Service method latency")
+                .tag("class", className)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
@@ -10,11 +10,20 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Getter
 @Setter
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+        // Backs keyset pagination: WHERE user_id = ? ORDER BY updated_at DESC, id DESC
+        @Index(name = "idx_notes_user_updated_id", columnList = "user_id, updated_at, id")
+})
 public class Note {
 
+    public static final int PREVIEW_LENGTH = 120;
+    // Each notes_seq value stands for this many ids; the reactive side allocates from the same blocks
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -23,14 +32,29 @@ public class Note {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Kept in step with content on every write so summary listings never read the content column
+    @Column(name = "content_length")
+    private Integer contentLength;
+
+    @Column(name = "content_preview", length = PREVIEW_LENGTH)
+    private String contentPreview;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
 
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock for entity writes; owner-scoped bulk updates bump it themselves. Exposed as the ETag.
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     public Note() {
 
     }
@@ -45,11 +69,54 @@ public class Note {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        summarizeContent();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        summarizeContent();
+    }
+
+    private void summarizeContent() {
+        contentLength = lengthOf(content);
+        contentPreview = previewOf(content);
+    }
+
+    public static Integer lengthOf(String content) {
+        return content == null ? null : content.length();
+    }
+
+    /**
+     * The start of the content with runs of whitespace collapsed, cut to {@link #PREVIEW_LENGTH} characters
+     * without splitting a surrogate pair.
+     */
+    public static String previewOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        // Walks only as far as the preview needs, so multi-megabyte notes are not copied
+        StringBuilder preview = new StringBuilder(PREVIEW_LENGTH);
+        boolean pendingSpace = false;
+        for (int i = 0; i < content.length() && preview.length() < PREVIEW_LENGTH; i++) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = preview.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                if (preview.length() + 1 == PREVIEW_LENGTH) {
+                    break;
+                }
+                preview.append(' ');
+                pendingSpace = false;
+            }
+            preview.append(c);
+        }
+        if (preview.length() == PREVIEW_LENGTH && Character.isHighSurrogate(preview.charAt(PREVIEW_LENGTH - 1))) {
+            preview.setLength(PREVIEW_LENGTH - 1);
+        }
+        return preview.toString();
     }
 
 }
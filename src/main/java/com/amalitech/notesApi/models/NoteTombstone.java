@@ -0,0 +1,62 @@
+package com.amalitech.notesApi.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted note, kept so delta sync can tell clients to drop their copy.
+ * Note ids are never reused, so the note id doubles as the primary key.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "note_tombstones", indexes = {
+        // Backs the changes feed: WHERE user_id = ? AND (deleted_at, note_id) > (?, ?) ORDER BY deleted_at, note_id
+        @Index(name = "idx_note_tombstones_user_deleted_note", columnList = "user_id, deleted_at, note_id")
+})
+public class NoteTombstone implements Persistable<Long> {
+
+    @Id
+    @Column(name = "note_id")
+    private Long noteId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Assigned ids would otherwise make save() issue a SELECT before every INSERT
+    @Transient
+    private boolean newEntity = true;
+
+    public NoteTombstone() {
+
+    }
+
+    public NoteTombstone(Long noteId, Long userId, LocalDateTime deletedAt) {
+        this.noteId = noteId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return noteId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+}
@@ -30,6 +30,10 @@ public class User {
 
     private LocalDateTime createdAt;
 
+    // Embedded in issued tokens; bumped whenever the credentials change
+    @Column(name = "token_version", columnDefinition = "integer default 0 not null")
+    private int tokenVersion;
+
     public User() {
 
     }
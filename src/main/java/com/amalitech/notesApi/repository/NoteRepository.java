@@ -1,13 +1,184 @@
 package com.amalitech.notesApi.repository;
 
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryResponse;
 import com.amalitech.notesApi.models.Note;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Read queries select straight into {@link NoteResponse}, so no entities are loaded,
+ * no dirty-checking snapshots are kept and the lazy {@code user} association is never touched.
+ * Entities are only loaded on the write paths.
+ */
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
 
+    String SELECT_RESPONSE = """
+            select new com.amalitech.notesApi.dto.response.NoteResponse(
+                n.id, n.title, n.content, n.createdAt, n.updatedAt, n.version)
+            from Note n
+            """;
+
+    String SELECT_SUMMARY = """
+            select new com.amalitech.notesApi.dto.response.NoteSummaryResponse(
+                n.id, n.title, n.contentLength, n.contentPreview, n.createdAt, n.updatedAt)
+            from Note n
+            """;
+
     List<Note> findByUserId(Long userId);
+
+    /**
+     * Bulk update scoped to the owner: a single statement, no entity loaded. Returns 0 when the note
+     * does not exist or belongs to someone else. Bypasses lifecycle callbacks and Hibernate's version
+     * check, so updatedAt is passed in, the version is bumped in the statement and the summary columns
+     * are derived here.
+     */
+    default int updateByIdAndUserId(Long id, Long userId, String title, String content, LocalDateTime updatedAt) {
+        return updateWithSummary(id, userId, title, content, Note.lengthOf(content), Note.previewOf(content), updatedAt);
+    }
+
+    /**
+     * As {@link #updateByIdAndUserId}, but only while the note is still at one of {@code expectedVersions}.
+     * Returns 0 as well when another write got there first.
+     */
+    default int updateByIdAndUserIdAndVersionIn(Long id, Long userId, Collection<Long> expectedVersions,
+                                                String title, String content, LocalDateTime updatedAt) {
+        return updateWithSummaryIfVersionIn(id, userId, expectedVersions,
+                title, content, Note.lengthOf(content), Note.previewOf(content), updatedAt);
+    }
+
+    @Modifying
+    @Query("""
+            update Note n
+            set n.title = :title, n.content = :content,
+                n.contentLength = :contentLength, n.contentPreview = :contentPreview,
+                n.updatedAt = :updatedAt, n.version = n.version + 1
+            where n.id = :id and n.user.id = :userId
+            """)
+    int updateWithSummary(@Param("id") Long id,
+                          @Param("userId") Long userId,
+                          @Param("title") String title,
+                          @Param("content") String content,
+                          @Param("contentLength") Integer contentLength,
+                          @Param("contentPreview") String contentPreview,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("""
+            update Note n
+            set n.title = :title, n.content = :content,
+                n.contentLength = :contentLength, n.contentPreview = :contentPreview,
+                n.updatedAt = :updatedAt, n.version = n.version + 1
+            where n.id = :id and n.user.id = :userId and n.version in :expectedVersions
+            """)
+    int updateWithSummaryIfVersionIn(@Param("id") Long id,
+                                     @Param("userId") Long userId,
+                                     @Param("expectedVersions") Collection<Long> expectedVersions,
+                                     @Param("title") String title,
+                                     @Param("content") String content,
+                                     @Param("contentLength") Integer contentLength,
+                                     @Param("contentPreview") String contentPreview,
+                                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("delete from Note n where n.id = :id and n.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from Note n where n.id = :id and n.user.id = :userId and n.version in :expectedVersions")
+    int deleteByIdAndUserIdAndVersionIn(@Param("id") Long id,
+                                        @Param("userId") Long userId,
+                                        @Param("expectedVersions") Collection<Long> expectedVersions);
+
+    @Query(SELECT_RESPONSE + "where n.id = :id and n.user.id = :userId")
+    Optional<NoteResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE + "where n.id in :ids and n.user.id = :userId")
+    List<NoteResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE + """
+            where n.user.id = :userId
+            order by n.updatedAt desc, n.id desc
+            """)
+    List<NoteResponse> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + """
+            where n.user.id = :userId
+              and (n.updatedAt < :updatedAt or (n.updatedAt = :updatedAt and n.id < :id))
+            order by n.updatedAt desc, n.id desc
+            """)
+    List<NoteResponse> findPageAfter(@Param("userId") Long userId,
+                                     @Param("updatedAt") LocalDateTime updatedAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    /**
+     * Summary listing: reads only the denormalized length and preview columns, never the content column.
+     */
+    @Query(SELECT_SUMMARY + """
+            where n.user.id = :userId
+            order by n.updatedAt desc, n.id desc
+            """)
+    List<NoteSummaryResponse> findSummaryFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + """
+            where n.user.id = :userId
+              and (n.updatedAt < :updatedAt or (n.updatedAt = :updatedAt and n.id < :id))
+            order by n.updatedAt desc, n.id desc
+            """)
+    List<NoteSummaryResponse> findSummaryPageAfter(@Param("userId") Long userId,
+                                                   @Param("updatedAt") LocalDateTime updatedAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    /**
+     * Rows written before the summary columns existed, for {@code NoteSummaryBackfill}.
+     */
+    @Query(SELECT_RESPONSE + "where n.contentLength is null order by n.id")
+    List<NoteResponse> findResponsesMissingSummary(Pageable pageable);
+
+    /**
+     * Fills in the summary columns only; updatedAt is left alone so sync clients do not see a change.
+     */
+    @Modifying
+    @Query("update Note n set n.contentLength = :contentLength, n.contentPreview = :contentPreview where n.id = :id")
+    int updateSummary(@Param("id") Long id,
+                      @Param("contentLength") Integer contentLength,
+                      @Param("contentPreview") String contentPreview);
+
+    /**
+     * Notes created or updated after the given position, oldest first. Shares the
+     * (user_id, updated_at, id) index with the listing queries.
+     */
+    @Query(SELECT_RESPONSE + """
+            where n.user.id = :userId
+              and (n.updatedAt > :updatedAt or (n.updatedAt = :updatedAt and n.id > :id))
+            order by n.updatedAt asc, n.id asc
+            """)
+    List<NoteResponse> findChangedAfter(@Param("userId") Long userId,
+                                        @Param("updatedAt") LocalDateTime updatedAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    /**
+     * Forward-only cursor over all of a user's notes. Must be consumed inside a transaction
+     * and closed afterwards; rows are fetched from the driver in chunks of the fetch size.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE + "where n.user.id = :userId order by n.id")
+    Stream<NoteResponse> streamByUserId(@Param("userId") Long userId);
 }
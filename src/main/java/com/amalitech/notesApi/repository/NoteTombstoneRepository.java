@@ -0,0 +1,26 @@
+package com.amalitech.notesApi.repository;
+
+import com.amalitech.notesApi.models.NoteTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+
+    @Query("""
+            select t from NoteTombstone t
+            where t.userId = :userId
+              and (t.deletedAt > :deletedAt or (t.deletedAt = :deletedAt and t.noteId > :noteId))
+            order by t.deletedAt asc, t.noteId asc
+            """)
+    List<NoteTombstone> findDeletedAfter(@Param("userId") Long userId,
+                                         @Param("deletedAt") LocalDateTime deletedAt,
+                                         @Param("noteId") Long noteId,
+                                         Pageable pageable);
+}
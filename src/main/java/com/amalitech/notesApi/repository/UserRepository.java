@@ -1,8 +1,13 @@
 package com.amalitech.notesApi.repository;
 
 import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.security.AuthenticatedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,6 +17,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    /**
+     * Only the columns that identify a caller; the password hash and timestamps are not read.
+     * Read-write so that, with replica routing, the identity caches are filled from the primary.
+     */
+    @Transactional
+    @Query("select new com.amalitech.notesApi.security.AuthenticatedUser(u.id, u.email, u.tokenVersion) "
+            + "from User u where u.email = :email")
+    Optional<AuthenticatedUser> findIdentityByEmail(@Param("email") String email);
+
+    @Transactional
+    @Query("select new com.amalitech.notesApi.security.AuthenticatedUser(u.id, u.email, u.tokenVersion) "
+            + "from User u where u.id = :id")
+    Optional<AuthenticatedUser> findIdentityById(@Param("id") Long id);
+
     boolean existsByEmail(String email);
 
+    /**
+     * Replaces the password hash only if it has not changed since it was read,
+     * so a concurrent password update is never overwritten.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :currentPassword")
+    int replacePasswordHash(@Param("id") Long id,
+                            @Param("currentPassword") String currentPassword,
+                            @Param("newPassword") String newPassword);
+
 }
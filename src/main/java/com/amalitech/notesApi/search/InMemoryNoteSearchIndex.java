@@ -0,0 +1,177 @@
+package com.amalitech.notesApi.search;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.repository.NoteRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded inverted index with BM25 ranking, used with H2 where there is no native
+ * full-text search. Each user has an independent index, so searches never touch
+ * other users' notes. The index is rebuilt from the database on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryNoteSearchIndex implements NoteSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Title terms are counted this many times so title matches outrank body matches
+    private static final int TITLE_WEIGHT = 2;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final NoteRepository noteRepository;
+    private final Map<Long, UserIndex> userIndexes = new ConcurrentHashMap<>();
+    private final Map<Long, Long> noteOwners = new ConcurrentHashMap<>();
+
+    public InMemoryNoteSearchIndex(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Page<Note> page = noteRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(note -> index(note.getUser().getId(), NoteResponse.from(note)));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = noteRepository.findAll(page.nextPageable());
+        }
+    }
+
+    @Override
+    public void index(Long userId, NoteResponse note) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (int i = 0; i < TITLE_WEIGHT; i++) {
+            tokenize(note.title()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+        }
+        tokenize(note.content()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        Long previousOwner = noteOwners.put(note.id(), userId);
+        if (previousOwner != null && !previousOwner.equals(userId)) {
+            indexFor(previousOwner).remove(note.id());
+        }
+        indexFor(userId).put(note.id(), frequencies);
+    }
+
+    @Override
+    public void remove(Long noteId) {
+        Long userId = noteOwners.remove(noteId);
+        if (userId != null) {
+            indexFor(userId).remove(noteId);
+        }
+    }
+
+    @Override
+    public List<NoteSearchHit> search(Long userId, String query, int offset, int limit) {
+        UserIndex index = userIndexes.get(userId);
+        if (index == null) {
+            return List.of();
+        }
+        List<NoteSearchHit> hits = index.search(new LinkedHashSet<>(tokenize(query)));
+        if (offset >= hits.size()) {
+            return List.of();
+        }
+        return hits.subList(offset, Math.min(hits.size(), offset + limit));
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 1) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private UserIndex indexFor(Long userId) {
+        return userIndexes.computeIfAbsent(userId, id -> new UserIndex());
+    }
+
+    /**
+     * Postings for one user. Guarded by its own monitor; contention is limited to
+     * concurrent writes and searches by the same user.
+     */
+    private static class UserIndex {
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+        private final Map<Long, Integer> lengths = new HashMap<>();
+        private long totalLength;
+
+        synchronized void put(Long noteId, Map<String, Integer> frequencies) {
+            remove(noteId);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(noteId, entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(noteId, frequencies);
+            lengths.put(noteId, length);
+            totalLength += length;
+        }
+
+        synchronized void remove(Long noteId) {
+            Map<String, Integer> frequencies = documents.remove(noteId);
+            if (frequencies == null) {
+                return;
+            }
+            for (String term : frequencies.keySet()) {
+                Map<Long, Integer> notes = postings.get(term);
+                notes.remove(noteId);
+                if (notes.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= lengths.remove(noteId);
+        }
+
+        synchronized List<NoteSearchHit> search(Set<String> terms) {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> notes = postings.get(term);
+                if (notes == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - notes.size() + 0.5) / (notes.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : notes.entrySet()) {
+                    int frequency = posting.getValue();
+                    double norm = K1 * (1 - B + B * lengths.get(posting.getKey()) / averageLength);
+                    scores.merge(posting.getKey(), idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .map(entry -> new NoteSearchHit(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingDouble(NoteSearchHit::score).reversed()
+                            .thenComparing(NoteSearchHit::noteId, Comparator.reverseOrder()))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.amalitech.notesApi.search;
+
+public record NoteSearchHit(Long noteId, double score) {
+}
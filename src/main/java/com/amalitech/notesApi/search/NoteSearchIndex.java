@@ -0,0 +1,21 @@
+package com.amalitech.notesApi.search;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+
+import java.util.List;
+
+/**
+ * Full-text index over note titles and content. Implementations are kept up to date
+ * by NoteService as notes are created, updated and deleted.
+ */
+public interface NoteSearchIndex {
+
+    void index(Long userId, NoteResponse note);
+
+    void remove(Long noteId);
+
+    /**
+     * Ranked matches among the given user's notes, best first.
+     */
+    List<NoteSearchHit> search(Long userId, String query, int offset, int limit);
+}
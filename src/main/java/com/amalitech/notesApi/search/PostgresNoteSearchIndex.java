@@ -0,0 +1,58 @@
+package com.amalitech.notesApi.search;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Full-text search backed by a PostgreSQL GIN index over a weighted tsvector of title and content.
+ * Postgres maintains the index itself on every insert, update and delete, so the write hooks are no-ops.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.search.engine", havingValue = "postgres")
+public class PostgresNoteSearchIndex implements NoteSearchIndex {
+
+    // Must be identical in the index definition and the queries for the planner to use the index
+    private static final String DOCUMENT = "(setweight(to_tsvector('english', coalesce(title, '')), 'A')"
+            + " || setweight(to_tsvector('english', coalesce(content, '')), 'B'))";
+
+    private static final String SEARCH_SQL = """
+            SELECT n.id, ts_rank(%1$s, q) AS score
+            FROM notes n, websearch_to_tsquery('english', ?) q
+            WHERE n.user_id = ? AND %1$s @@ q
+            ORDER BY score DESC, n.id DESC
+            LIMIT ? OFFSET ?
+            """.formatted(DOCUMENT);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresNoteSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs after Hibernate has created or updated the notes table
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notes_search ON notes USING GIN (" + DOCUMENT + ")");
+    }
+
+    @Override
+    public void index(Long userId, NoteResponse note) {
+    }
+
+    @Override
+    public void remove(Long noteId) {
+    }
+
+    @Override
+    public List<NoteSearchHit> search(Long userId, String query, int offset, int limit) {
+        return jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> new NoteSearchHit(rs.getLong("id"), rs.getDouble("score")),
+                query, userId, limit, offset);
+    }
+}
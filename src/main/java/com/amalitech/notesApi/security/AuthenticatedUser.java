@@ -0,0 +1,15 @@
+package com.amalitech.notesApi.security;
+
+import java.security.Principal;
+
+/**
+ * Principal built from verified JWT claims, so the caller's identity is known
+ * without loading the user row on every request.
+ */
+public record AuthenticatedUser(Long id, String email, int tokenVersion) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -3,6 +3,7 @@ package com.amalitech.notesApi.security;
 import com.amalitech.notesApi.models.User;
 import com.amalitech.notesApi.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -10,9 +11,11 @@ import org.springframework.stereotype.Service;
 public class AuthenticatedUserService {
 
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
-    public AuthenticatedUserService(UserRepository userRepository) {
+    public AuthenticatedUserService(UserRepository userRepository, UserIdentityCache userIdentityCache) {
         this.userRepository = userRepository;
+        this.userIdentityCache = userIdentityCache;
     }
 
     public User getCurrentUser() {
@@ -24,5 +27,27 @@ public class AuthenticatedUserService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("Authenticated user not found"));
     }
-}
 
+    /**
+     * Id of the caller. Read from the principal the filter resolved, so no query is issued;
+     * other principals go through the identity cache.
+     */
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.id();
+        }
+        AuthenticatedUser identity = userIdentityCache.find(authentication.getName());
+        if (identity == null) {
+            throw new EntityNotFoundException("Authenticated user not found");
+        }
+        return identity.id();
+    }
+
+    /**
+     * Lazy reference to the caller, for use as an association value without loading the row.
+     */
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+}
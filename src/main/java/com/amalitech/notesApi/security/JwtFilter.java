@@ -1,34 +1,35 @@
 package com.amalitech.notesApi.security;
 
-import com.amalitech.notesApi.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final UserIdentityCache userIdentityCache;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
 
-    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, UserIdentityCache userIdentityCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.userIdentityCache = userIdentityCache;
+        this.validTokenTimer = parseTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = parseTimer(meterRegistry, "invalid");
     }
 
     @Override
@@ -42,31 +43,54 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(7);
-        String subject;
+        Claims claims;
+        long start = System.nanoTime();
         try {
-            subject = jwtUtil.extractSubject(jwt);
+            // Single signature check per request; everything below reads these claims
+            claims = jwtUtil.parseClaims(jwt);
+            validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
+            invalidTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             filterChain.doFilter(request, response);
             return;
         }
 
+        String subject = claims.getSubject();
         if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
+            AuthenticatedUser principal = jwtUtil.extractAuthenticatedUser(claims);
 
-            if (jwtUtil.isTokenValid(jwt, userDetails.getUsername())) {
-                List<GrantedAuthority> authorities =List.of();
+            if (principal != null) {
+                // The signed claims identify the caller; the cached identity only confirms the user still
+                // exists and has not changed credentials (bumping the version) since the token was issued
+                AuthenticatedUser current = userIdentityCache.findById(principal.id());
+                if (current != null && current.tokenVersion() == principal.tokenVersion()) {
+                    authenticate(new UsernamePasswordAuthenticationToken(principal, null, List.of()), request);
+                }
+            } else {
+                // Tokens issued before the user id claim existed resolve the caller by email; the resolved
+                // identity becomes the principal, so the id is not looked up again later in the request
+                AuthenticatedUser identity = userIdentityCache.find(subject);
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (identity != null
+                        && jwtUtil.isTokenValid(claims, identity.email())
+                        && identity.tokenVersion() == jwtUtil.extractTokenVersion(claims)) {
+                    authenticate(new UsernamePasswordAuthenticationToken(identity, null, List.of()), request);
+                }
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("notes.jwt.parse")
+                .description("Time to verify a bearer token and read its claims")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void authenticate(UsernamePasswordAuthenticationToken authToken, HttpServletRequest request) {
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
@@ -2,36 +2,67 @@ package com.amalitech.notesApi.security;
 
 
 import com.amalitech.notesApi.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtUtil {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final SecretKey secretKey;
     private final long expirationMs;
     private final String issuer;
+    private final JwtParser parser;
+    // Verified claims keyed by token digest; null when the cache is disabled
+    private final Cache<String, Claims> verifiedClaims;
+
+    public JwtUtil(String secret, long expirationMs, String issuer) {
+        this(secret, expirationMs, issuer, false, 0);
+    }
 
+    @Autowired
     public JwtUtil(
             @Value("${security.jwt.secret:change-me-secret-key-change-me-secret-key-change-me-secret-key}") String secret,
             @Value("${security.jwt.expiration-ms:3600000}") long expirationMs,
-            @Value("${security.jwt.issuer:demo-app}") String issuer
+            @Value("${security.jwt.issuer:demo-app}") String issuer,
+            @Value("${security.jwt.cache.enabled:false}") boolean cacheEnabled,
+            @Value("${security.jwt.cache.maximum-size:10000}") long cacheMaximumSize
     ) {
         // Treat the secret as a plain text value, not Base64, to avoid decoding errors
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
         this.expirationMs = expirationMs;
         this.issuer = issuer;
+        // The parser is immutable and thread-safe, so build it once instead of per call
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedClaims = cacheEnabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheMaximumSize)
+                        .expireAfter(new ExpireAtTokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
     }
 
     public String generateToken(User user) {
@@ -42,6 +73,8 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .subject(subject)
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .issuer(issuer)
                 .issuedAt(now)
                 .expiration(expiry)
@@ -49,13 +82,38 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifies the token signature and expiry and returns its claims.
+     * Callers should parse once per request and pass the claims to the other methods.
+     */
+    public Claims parseClaims(String token) {
+        if (verifiedClaims == null || token == null || token.isBlank()) {
+            return getAllClaims(token);
+        }
+
+        String key = digest(token);
+        Claims cached = verifiedClaims.getIfPresent(key);
+        if (cached != null && cached.getExpiration().after(new Date())) {
+            return cached;
+        }
+
+        Claims claims = getAllClaims(token);
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+
     public String extractSubject(String token) {
-        return getAllClaims(token).getSubject();
+        return parseClaims(token).getSubject();
     }
 
 
     public boolean isTokenValid(String token, String expectedSubject) {
-        Claims claims = getAllClaims(token);
+        return isTokenValid(parseClaims(token), expectedSubject);
+    }
+
+    public boolean isTokenValid(Claims claims, String expectedSubject) {
         String subject = claims.getSubject();
         Date expiration = claims.getExpiration();
         return subject != null
@@ -64,11 +122,71 @@ public class JwtUtil {
                 && expiration.after(new Date());
     }
 
+    public AuthenticatedUser extractAuthenticatedUser(String token) {
+        return extractAuthenticatedUser(parseClaims(token));
+    }
+
+    /**
+     * The verified-claims cache, or null when caching is disabled. Exposed for metrics binding.
+     */
+    public Cache<String, Claims> getVerifiedClaimsCache() {
+        return verifiedClaims;
+    }
+
+    /**
+     * Builds the caller's identity from the token claims alone.
+     * Returns null for tokens that were issued without a user id claim.
+     */
+    public AuthenticatedUser extractAuthenticatedUser(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        if (userId == null || claims.getSubject() == null || claims.getExpiration() == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), extractTokenVersion(claims));
+    }
+
+    /**
+     * The user's token version when the token was issued; tokens without the claim count as version 0.
+     */
+    public int extractTokenVersion(Claims claims) {
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
     private Claims getAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Keeps a cached entry only until the token itself expires.
+     */
+    private static class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
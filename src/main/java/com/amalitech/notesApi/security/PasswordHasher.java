@@ -0,0 +1,79 @@
+package com.amalitech.notesApi.security;
+
+import com.amalitech.notesApi.exceptions.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link PasswordUtils} on the password hashing executor instead of the calling thread.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    static final long RETRY_AFTER_SECONDS = 1;
+
+    private final Executor executor;
+    private final int cost;
+
+    @Autowired
+    public PasswordHasher(
+            @Qualifier("passwordHashingExecutor") Executor executor,
+            @Value("${security.password.bcrypt.cost:10}") int cost,
+            @Value("${security.password.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${security.password.bcrypt.target-ms:250}") long targetMillis) {
+        this(executor, calibrate ? calibrate(cost, targetMillis) : cost);
+    }
+
+    public PasswordHasher(Executor executor, int cost) {
+        if (cost < PasswordUtils.MIN_COST || cost > PasswordUtils.MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between "
+                    + PasswordUtils.MIN_COST + " and " + PasswordUtils.MAX_COST);
+        }
+        this.executor = executor;
+        this.cost = cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public CompletableFuture<String> hash(String plainPassword) {
+        return submit(() -> PasswordUtils.hashPassword(plainPassword, cost));
+    }
+
+    /**
+     * True when the hash was produced with a lower work factor than the current one.
+     */
+    public boolean needsRehash(String hashedPassword) {
+        return PasswordUtils.getCost(hashedPassword) < cost;
+    }
+
+    public CompletableFuture<Boolean> verify(String plainPassword, String hashedPassword) {
+        return submit(() -> PasswordUtils.verifyPassword(plainPassword, hashedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Too many authentication requests, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private static int calibrate(int minCost, long targetMillis) {
+        int calibrated = PasswordUtils.calibrateCost(targetMillis, minCost);
+        log.info("Calibrated BCrypt cost to {} for a target hash time of {} ms", calibrated, targetMillis);
+        return calibrated;
+    }
+}
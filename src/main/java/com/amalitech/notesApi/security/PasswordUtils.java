@@ -1,15 +1,43 @@
 package com.amalitech.notesApi.security;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.util.concurrent.TimeUnit;
+
 public class PasswordUtils {
 
+    public static final int DEFAULT_COST = 10;
+    public static final int MIN_COST = 4;
+    // jbcrypt rejects log_rounds above 30
+    public static final int MAX_COST = 30;
+    // Calibration never picks more than this, even on very fast hardware
+    static final int MAX_CALIBRATED_COST = 16;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
     /**
      * Hash a password using BCrypt
      * @param plainPassword The plain text password
      * @return The hashed password
      */
     public static String hashPassword(String plainPassword) {
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt());
+        return hashPassword(plainPassword, DEFAULT_COST);
+    }
+
+    /**
+     * Hash a password using BCrypt with the given work factor
+     * @param plainPassword The plain text password
+     * @param cost The log2 number of BCrypt rounds
+     * @return The hashed password
+     */
+    public static String hashPassword(String plainPassword, int cost) {
+        // Static utility, so timings go to the global registry that Spring Boot wires its registries into
+        Timer timer = Timer.builder("notes.password.hash")
+                .description("BCrypt hashing time")
+                .tag("cost", String.valueOf(cost))
+                .register(Metrics.globalRegistry);
+        return timer.record(() -> BCrypt.hashpw(plainPassword, BCrypt.gensalt(cost)));
     }
 
     /**
@@ -19,10 +47,65 @@ public class PasswordUtils {
      * @return true if the password matches, false otherwise
      */
     public static boolean verifyPassword(String plainPassword, String hashedPassword) {
+        long start = System.nanoTime();
+        boolean matches;
         try {
-            return BCrypt.checkpw(plainPassword, hashedPassword);
+            matches = BCrypt.checkpw(plainPassword, hashedPassword);
         } catch (IllegalArgumentException e) {
-            return false;
+            matches = false;
+        }
+        Timer.builder("notes.password.verify")
+                .description("BCrypt verification time")
+                .tag("outcome", matches ? "match" : "mismatch")
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    /**
+     * Read the work factor out of a BCrypt hash ("$2a$10$...")
+     * @param hashedPassword The hashed password
+     * @return The cost, or -1 if the value is not a BCrypt hash
+     */
+    public static int getCost(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = hashedPassword.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > hashedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(costStart, costStart + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Find the work factor whose hash time on this machine is closest to the target.
+     * Each extra round doubles the time, so one measurement at the minimum cost is enough
+     * to extrapolate.
+     * @param targetMillis The desired time to hash one password
+     * @param minCost The lowest cost that may be returned
+     * @return The calibrated cost, between minCost and {@value #MAX_CALIBRATED_COST}
+     */
+    public static int calibrateCost(long targetMillis, int minCost) {
+        // Warm up the JIT so the measurement reflects steady-state speed
+        hashPassword(CALIBRATION_PASSWORD, MIN_COST);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            hashPassword(CALIBRATION_PASSWORD, minCost);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double measuredMillis = Math.max(best / 1_000_000.0, 0.001);
+        if (targetMillis <= measuredMillis) {
+            return minCost;
         }
+        int extraRounds = (int) Math.round(Math.log(targetMillis / measuredMillis) / Math.log(2));
+        return Math.max(minCost, Math.min(MAX_CALIBRATED_COST, minCost + extraRounds));
     }
 }
@@ -0,0 +1,121 @@
+package com.amalitech.notesApi.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the token buckets configured in {@link RateLimitProperties}. Runs in the security chain right
+ * after {@link JwtFilter}, so authenticated routes are limited per user and login/registration per IP
+ * before any BCrypt work is queued. Rejected requests get 429 with a Retry-After header.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<LimitedRoute> routes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final JsonMapper jsonMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, JsonMapper jsonMapper) {
+        this.enabled = properties.enabled();
+        this.routes = properties.routes().stream()
+                .map(route -> new LimitedRoute(
+                        route,
+                        new TokenBucketRateLimiter(route.capacity(), route.refillTokens(), route.refillPeriod(), properties.idleTimeout()),
+                        Counter.builder("notes.rate-limit.rejected")
+                                .description("Requests rejected by the rate limiter")
+                                .tag("route", route.name())
+                                .register(meterRegistry)))
+                .toList();
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        LimitedRoute route = match(path);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = route.limiter().tryAcquire(keyFor(route.config().key(), request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected().increment();
+        reject(response, path, Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private LimitedRoute match(String path) {
+        for (LimitedRoute route : routes) {
+            if (pathMatcher.match(route.config().path(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String keyFor(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        if (keyType == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+                    return "user:" + principal.id();
+                }
+                if (authentication.getPrincipal() instanceof UserDetails userDetails) {
+                    return "user:" + userDetails.getUsername();
+                }
+            }
+        }
+        // Behind a proxy this relies on server.forward-headers-strategy to resolve the client address
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, String path, long retryAfterSeconds) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("details", "Rate limit exceeded, please retry shortly");
+        body.put("path", path);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record LimitedRoute(RateLimitProperties.Route config, TokenBucketRateLimiter limiter, Counter rejected) {
+    }
+}
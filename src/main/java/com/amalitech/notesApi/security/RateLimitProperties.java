@@ -0,0 +1,52 @@
+package com.amalitech.notesApi.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-route token buckets, bound from {@code notes.rate-limit.*}. The first route whose path pattern
+ * matches a request applies; unmatched requests are not limited.
+ *
+ * @param enabled     turns the limiter off without removing the route configuration
+ * @param idleTimeout how long a full, unused bucket is kept before it is evicted
+ * @param routes      limited routes in match order
+ */
+@ConfigurationProperties("notes.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10m") Duration idleTimeout,
+        List<Route> routes
+) {
+
+    public RateLimitProperties {
+        routes = routes == null ? List.of() : List.copyOf(routes);
+    }
+
+    /**
+     * @param name         tag on the rejection metric
+     * @param path         Ant-style pattern matched against the request path
+     * @param key          whose budget a request spends
+     * @param capacity     largest burst a client can send after being idle
+     * @param refillTokens tokens added back every {@code refillPeriod}
+     * @param refillPeriod steady-state window for {@code refillTokens}
+     */
+    public record Route(
+            String name,
+            String path,
+            @DefaultValue("USER") KeyType key,
+            int capacity,
+            @DefaultValue("1") int refillTokens,
+            @DefaultValue("1s") Duration refillPeriod
+    ) {
+    }
+
+    public enum KeyType {
+        /** The authenticated user id; anonymous callers fall back to their IP. */
+        USER,
+        /** The client IP, for endpoints that are called before a token exists. */
+        IP
+    }
+}
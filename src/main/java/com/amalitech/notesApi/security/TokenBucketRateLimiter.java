@@ -0,0 +1,105 @@
+package com.amalitech.notesApi.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, one per key, without locks.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again (the
+ * "theoretical arrival time" form of a token bucket). Taking a token is one compare-and-set; there is
+ * no refill timer and no per-bucket lock. Buckets live in independent stripes so that evicting idle
+ * buckets sweeps one stripe at a time, piggybacked on normal requests, instead of pausing on the whole map.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final AtomicLongArray nextSweep;
+
+    public TokenBucketRateLimiter(int capacity, int refillTokens, Duration refillPeriod, Duration idleTimeout) {
+        this(capacity, refillTokens, refillPeriod, idleTimeout, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TokenBucketRateLimiter(int capacity, int refillTokens, Duration refillPeriod, Duration idleTimeout, LongSupplier nanoClock) {
+        if (capacity < 1 || refillTokens < 1 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Rate limit capacity, refill tokens and refill period must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / refillTokens);
+        // A full bucket may run this far ahead of the clock, i.e. hand out capacity tokens back to back
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        long now = nanoClock.getAsLong();
+        this.nextSweep = new AtomicLongArray(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            // Staggered so the stripes are not all swept by the same request
+            nextSweep.set(i, now + idleTimeoutNanos + i * (idleTimeoutNanos / STRIPES));
+        }
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 when the request may proceed, otherwise how many nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        int stripe = stripeOf(key);
+        sweepIfDue(stripe, now);
+
+        AtomicLong bucket = stripes[stripe].get(key);
+        if (bucket == null) {
+            bucket = stripes[stripe].computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private void sweepIfDue(int stripe, long now) {
+        long due = nextSweep.get(stripe);
+        if (now - due < 0 || !nextSweep.compareAndSet(stripe, due, now + idleTimeoutNanos)) {
+            return;
+        }
+        // A bucket that has been full for the idle timeout holds no state worth keeping; if a request races
+        // with the removal, that client simply starts again from a full bucket
+        long idleBefore = now - idleTimeoutNanos;
+        stripes[stripe].values().removeIf(bucket -> bucket.get() - idleBefore <= 0);
+    }
+
+    private static int stripeOf(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
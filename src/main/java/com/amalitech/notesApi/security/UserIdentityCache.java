@@ -0,0 +1,111 @@
+package com.amalitech.notesApi.security;
+
+import com.amalitech.notesApi.cache.CacheInvalidationBus;
+import com.amalitech.notesApi.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded caches of caller identities (id, email, token version), by email for tokens that do not carry
+ * the user id and by id to check the token version of those that do. Unknown emails are not cached, so a
+ * user registered after a miss is found on the next request; unknown ids are, since ids are never reused.
+ * Invalidations are broadcast so other nodes drop their copy too.
+ */
+@Component
+public class UserIdentityCache {
+
+    public static final String CACHE_NAME = "userIdentity";
+    public static final String BY_ID_CACHE_NAME = "userIdentityById";
+
+    private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> identities;
+    private final Cache<Long, Optional<AuthenticatedUser>> identitiesById;
+    private final CacheInvalidationBus invalidationBus;
+
+    public UserIdentityCache(
+            UserRepository userRepository,
+            @Value("${notes.users.identity-cache.maximum-size:10000}") long maximumSize,
+            @Value("${notes.users.identity-cache.expire-after-write:10m}") Duration expireAfterWrite,
+            CacheInvalidationBus invalidationBus) {
+        this.userRepository = userRepository;
+        // Upper bound on staleness if an invalidation from another node is lost
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.identitiesById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CACHE_NAME, this::evict, this::evictAll);
+    }
+
+    /**
+     * Identity of the user with the given email, or null when there is no such user.
+     */
+    public AuthenticatedUser find(String email) {
+        if (email == null) {
+            return null;
+        }
+        return identities.get(email, key -> userRepository.findIdentityByEmail(key).orElse(null));
+    }
+
+    /**
+     * Identity of the user with the given id, or null when there is no such user (any more).
+     */
+    public AuthenticatedUser findById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return identitiesById.get(id, userRepository::findIdentityById).orElse(null);
+    }
+
+    /**
+     * Drops the cached identity; call once a change to the user's email, credentials or existence is committed.
+     */
+    public void invalidate(Long id, String email) {
+        if (id == null || email == null) {
+            return;
+        }
+        evict(id, email);
+        invalidationBus.publish(CACHE_NAME, id + ":" + email);
+    }
+
+    /**
+     * The email-keyed cache. Exposed for metrics binding.
+     */
+    public Cache<String, AuthenticatedUser> getCache() {
+        return identities;
+    }
+
+    /**
+     * The id-keyed cache. Exposed for metrics binding.
+     */
+    public Cache<Long, Optional<AuthenticatedUser>> getByIdCache() {
+        return identitiesById;
+    }
+
+    private void evict(Long id, String email) {
+        identities.invalidate(email);
+        identitiesById.invalidate(id);
+    }
+
+    // Broadcast keys are "id:email"; the id never contains the separator, the email might
+    private void evict(String key) {
+        int separator = key.indexOf(':');
+        evict(Long.valueOf(key.substring(0, separator)), key.substring(separator + 1));
+    }
+
+    private void evictAll() {
+        identities.invalidateAll();
+        identitiesById.invalidateAll();
+    }
+}
@@ -0,0 +1,21 @@
+package com.amalitech.notesApi.service;
+
+import java.util.List;
+
+/**
+ * Precondition of a conditional note write, read from an If-Match header: either {@code *}, which only
+ * requires the note to exist, or the versions the write may apply to. A write without the header has no
+ * precondition and is passed null instead.
+ */
+public record IfMatch(List<Long> versions) {
+
+    public static final IfMatch ANY = new IfMatch(null);
+
+    public static IfMatch of(Long... versions) {
+        return new IfMatch(List.of(versions));
+    }
+
+    public boolean isAny() {
+        return versions == null;
+    }
+}
@@ -0,0 +1,155 @@
+package com.amalitech.notesApi.service;
+
+import com.amalitech.notesApi.cache.NoteCache;
+import com.amalitech.notesApi.dto.request.NoteBatchRequest;
+import com.amalitech.notesApi.dto.request.NoteBatchRequest.Action;
+import com.amalitech.notesApi.dto.request.NoteBatchRequest.Operation;
+import com.amalitech.notesApi.dto.response.NoteBatchResponse;
+import com.amalitech.notesApi.dto.response.NoteBatchResponse.Item;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.models.NoteTombstone;
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.repository.NoteTombstoneRepository;
+import com.amalitech.notesApi.search.NoteSearchIndex;
+import com.amalitech.notesApi.security.AuthenticatedUserService;
+import com.amalitech.notesApi.transaction.AfterCommit;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of note changes atomically. Everything is validated before the first write, then
+ * all inserts, updates and deletes are flushed together so Hibernate can send them as JDBC batches.
+ */
+@Service
+@AllArgsConstructor
+public class NoteBatchService {
+
+    private NoteRepository noteRepository;
+    private NoteTombstoneRepository noteTombstoneRepository;
+    private AuthenticatedUserService authenticatedUserService;
+    private NoteCache noteCache;
+    private NoteSearchIndex noteSearchIndex;
+
+    @Transactional
+    public NoteBatchResponse apply(NoteBatchRequest request) {
+        List<Operation> operations = request.operations();
+        Long userId = authenticatedUserService.getCurrentUserId();
+
+        Set<Long> targetIds = operations.stream()
+                .filter(operation -> operation.action() != Action.CREATE && operation.id() != null)
+                .map(Operation::id)
+                .collect(Collectors.toSet());
+        Map<Long, Note> existing = noteRepository.findAllById(targetIds).stream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        Map<Integer, Item> failures = validate(operations, existing, userId);
+        if (!failures.isEmpty()) {
+            List<Item> results = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                Operation operation = operations.get(i);
+                results.add(failures.getOrDefault(i, new Item(i, operation.action(), operation.id(),
+                        HttpStatus.FAILED_DEPENDENCY.value(), null, "Batch not applied")));
+            }
+            return new NoteBatchResponse(false, results);
+        }
+
+        User user = authenticatedUserService.getCurrentUserReference();
+        List<Note> written = new ArrayList<>();
+        List<Note> deleted = new ArrayList<>();
+        for (Operation operation : operations) {
+            switch (operation.action()) {
+                case CREATE -> {
+                    Note note = new Note();
+                    note.setTitle(operation.title());
+                    note.setContent(operation.content());
+                    note.setUser(user);
+                    written.add(note);
+                }
+                case UPDATE -> {
+                    Note note = existing.get(operation.id());
+                    note.setTitle(operation.title());
+                    note.setContent(operation.content());
+                    written.add(note);
+                }
+                case DELETE -> deleted.add(existing.get(operation.id()));
+            }
+        }
+        noteRepository.saveAll(written);
+        noteRepository.deleteAll(deleted);
+        LocalDateTime deletedAt = LocalDateTime.now();
+        noteTombstoneRepository.saveAll(deleted.stream()
+                .map(note -> new NoteTombstone(note.getId(), userId, deletedAt))
+                .toList());
+        // Send the batched statements now so ids and timestamps are final in the response
+        noteRepository.flush();
+
+        List<Item> results = new ArrayList<>();
+        Iterator<Note> writtenNotes = written.iterator();
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if (operation.action() == Action.DELETE) {
+                Long noteId = operation.id();
+                noteCache.evict(userId, noteId);
+                AfterCommit.run(() -> noteSearchIndex.remove(noteId));
+                results.add(new Item(i, Action.DELETE, operation.id(), HttpStatus.NO_CONTENT.value(), null, null));
+                continue;
+            }
+            Note note = writtenNotes.next();
+            NoteResponse response = NoteResponse.from(note);
+            noteCache.put(userId, response);
+            AfterCommit.run(() -> noteSearchIndex.index(userId, response));
+            HttpStatus status = operation.action() == Action.CREATE ? HttpStatus.CREATED : HttpStatus.OK;
+            results.add(new Item(i, operation.action(), note.getId(), status.value(), response, null));
+        }
+        return new NoteBatchResponse(true, results);
+    }
+
+    private Map<Integer, Item> validate(List<Operation> operations, Map<Long, Note> existing, Long userId) {
+        Map<Integer, Item> failures = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            String error = null;
+            HttpStatus status = HttpStatus.BAD_REQUEST;
+
+            if (operation.action() != Action.DELETE && (operation.title() == null || operation.title().isBlank())) {
+                error = "Title cannot be empty";
+            } else if (operation.action() != Action.DELETE && (operation.content() == null || operation.content().isBlank())) {
+                error = "Content cannot be empty";
+            } else if (operation.action() != Action.CREATE) {
+                Note note = existing.get(operation.id());
+                if (operation.id() == null) {
+                    error = "Note id is required";
+                } else if (!seen.add(operation.id())) {
+                    error = "Note appears more than once in the batch";
+                } else if (note == null) {
+                    status = HttpStatus.NOT_FOUND;
+                    error = "Note not found";
+                } else if (!note.getUser().getId().equals(userId)) {
+                    status = HttpStatus.FORBIDDEN;
+                    error = "You do not own this note";
+                }
+            }
+
+            if (error != null) {
+                failures.put(i, new Item(i, operation.action(), operation.id(), status.value(), null, error));
+            }
+        }
+        return failures;
+    }
+}
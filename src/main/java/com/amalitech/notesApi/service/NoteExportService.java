@@ -0,0 +1,49 @@
+package com.amalitech.notesApi.service;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.security.AuthenticatedUserService;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's notes as newline-delimited JSON. Notes are read through a database cursor
+ * and written one at a time, so memory use does not depend on how many notes the user has.
+ */
+@Service
+@AllArgsConstructor
+public class NoteExportService {
+    private static final int FLUSH_INTERVAL = 500;
+
+    private NoteRepository noteRepository;
+    private AuthenticatedUserService authenticatedUserService;
+    private JsonMapper jsonMapper;
+
+    @Transactional(readOnly = true)
+    public long exportNotes(OutputStream out) throws IOException {
+        Long userId = authenticatedUserService.getCurrentUserId();
+
+        long written = 0;
+        // Rows are projected straight into DTOs, so nothing accumulates in the persistence context
+        try (Stream<NoteResponse> notes = noteRepository.streamByUserId(userId)) {
+            Iterator<NoteResponse> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                out.write(jsonMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+
+                if (++written % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
@@ -1,26 +1,64 @@
 package com.amalitech.notesApi.service;
 
+import com.amalitech.notesApi.cache.NoteCache;
 import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NoteChangesResponse;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.dto.response.NoteSearchResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryPageResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryResponse;
 import com.amalitech.notesApi.exceptions.InvalidNoteException;
 import com.amalitech.notesApi.exceptions.NoteCreationException;
 import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import com.amalitech.notesApi.exceptions.PreconditionFailedException;
 import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.models.NoteTombstone;
 import com.amalitech.notesApi.models.User;
 import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.repository.NoteTombstoneRepository;
+import com.amalitech.notesApi.search.NoteSearchHit;
+import com.amalitech.notesApi.search.NoteSearchIndex;
 import com.amalitech.notesApi.security.AuthenticatedUserService;
 import com.amalitech.notesApi.service.interfaces.NoteServiceInterface;
+import com.amalitech.notesApi.transaction.AfterCommit;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+// Reads run in read-only transactions: Hibernate skips dirty checking and flushing, and with
+// notes.datasource.routing.enabled they are served from the replica. Writes opt back in below.
 @Service
 @AllArgsConstructor
+@Transactional(readOnly = true)
 public class NoteService implements NoteServiceInterface {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    // Position before any possible change; used when a client syncs for the first time
+    private static final NoteCursor SYNC_START = new NoteCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    // Longest a write may take to commit after taking its timestamp, plus clock skew between instances
+    static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
     private NoteRepository noteRepository;
+    private NoteTombstoneRepository noteTombstoneRepository;
     private AuthenticatedUserService authenticatedUserService;
+    private NoteCache noteCache;
+    private NoteSearchIndex noteSearchIndex;
     @Override
+    @Transactional
     public Note createNote(NoteRequest request) {
         if (request.title() == null || request.title().isBlank()) {
             throw new InvalidNoteException("Title cannot be empty");
@@ -28,40 +66,95 @@ public class NoteService implements NoteServiceInterface {
         if (request.content() == null || request.content().isBlank()) {
             throw new InvalidNoteException("Content cannot be empty");
         }
-        User user = authenticatedUserService.getCurrentUser();
+        User user = authenticatedUserService.getCurrentUserReference();
 
         Note note = new Note();
         note.setTitle(request.title());
         note.setContent(request.content());
         note.setUser(user);
 
+        Note saved;
         try {
-            return noteRepository.save(note);
+            saved = noteRepository.save(note);
         } catch (Exception ex) {
             throw new NoteCreationException("Failed to create note: " + ex.getMessage());
         }
+        NoteResponse indexed = NoteResponse.from(saved);
+        AfterCommit.run(() -> noteSearchIndex.index(user.getId(), indexed));
+        return saved;
     }
 
     @Override
-    public List<Note> getAllNotes() {
-        return noteRepository.findAll();    }
+    public NotePageResponse listNotes(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Long userId = authenticatedUserService.getCurrentUserId();
+
+        // Fetch one extra row to find out whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<NoteResponse> notes;
+        if (cursor == null || cursor.isBlank()) {
+            notes = noteRepository.findFirstPage(userId, limit);
+        } else {
+            NoteCursor after = NoteCursor.decode(cursor);
+            notes = noteRepository.findPageAfter(userId, after.updatedAt(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (notes.size() > pageSize) {
+            notes = notes.subList(0, pageSize);
+            NoteResponse last = notes.get(pageSize - 1);
+            nextCursor = new NoteCursor(last.updatedAt(), last.id()).encode();
+        }
+
+        return new NotePageResponse(notes, nextCursor);
+    }
 
     @Override
-    public Note getNoteById(Long id) {
-        User user = authenticatedUserService.getCurrentUser();
+    public NoteSummaryPageResponse listNoteSummaries(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Long userId = authenticatedUserService.getCurrentUserId();
 
-        Note note = noteRepository.findById(id)
-                .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+        // Same keyset paging as listNotes, over the summary columns only
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<NoteSummaryResponse> notes;
+        if (cursor == null || cursor.isBlank()) {
+            notes = noteRepository.findSummaryFirstPage(userId, limit);
+        } else {
+            NoteCursor after = NoteCursor.decode(cursor);
+            notes = noteRepository.findSummaryPageAfter(userId, after.updatedAt(), after.id(), limit);
+        }
 
-        if (!note.getUser().getId().equals(user.getId())) {
-            throw new AccessDeniedException("You do not own this note");
+        String nextCursor = null;
+        if (notes.size() > pageSize) {
+            notes = notes.subList(0, pageSize);
+            NoteSummaryResponse last = notes.get(pageSize - 1);
+            nextCursor = new NoteCursor(last.updatedAt(), last.id()).encode();
         }
 
-        return note;
+        return new NoteSummaryPageResponse(notes, nextCursor);
+    }
+
+    // Misses fill the shared cache, so they read the primary: a lagging replica would pin the old note until the TTL
+    @Override
+    @Transactional
+    public NoteResponse getNoteById(Long id) {
+        Long userId = authenticatedUserService.getCurrentUserId();
+        return noteCache.get(userId, id, () -> noteRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> missingOrForbidden(id)));
+    }
+
+    @Override
+    @Transactional
+    public NoteResponse updateNote(Long id, NoteRequest request) {
+        return updateNote(id, request, null);
     }
 
+    /**
+     * Updates the note; with an If-Match of versions only if nobody changed it since.
+     */
     @Override
-    public Note updateNote(Long id, NoteRequest request) {
+    @Transactional
+    public NoteResponse updateNote(Long id, NoteRequest request, IfMatch ifMatch) {
 
 
         if (request.title() == null || request.title().isBlank()) {
@@ -71,18 +164,170 @@ public class NoteService implements NoteServiceInterface {
                 throw new InvalidNoteException("Content cannot be empty");
             }
 
-        Note existingNote = getNoteById(id);
+        Long userId = authenticatedUserService.getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = ifMatch == null || ifMatch.isAny()
+                ? noteRepository.updateByIdAndUserId(id, userId, request.title(), request.content(), now)
+                : noteRepository.updateByIdAndUserIdAndVersionIn(id, userId, ifMatch.versions(), request.title(), request.content(), now);
+        if (updated == 0) {
+            throw rejected(id, userId, ifMatch);
+        }
+
+        // createdAt is not known to the update statement, so the response is read back as a projection
+        NoteResponse saved = noteRepository.findResponseByIdAndUserId(id, userId)
+                .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+        noteCache.put(userId, saved);
+        AfterCommit.run(() -> noteSearchIndex.index(userId, saved));
+        return saved;
+    }
 
-        existingNote.setTitle(request.title());
-            existingNote.setContent(request.content());
+    @Override
+    @Transactional
+    public void deleteNote(Long id) {
+        deleteNote(id, null);
+    }
 
-            return noteRepository.save(existingNote);
+    @Override
+    @Transactional
+    public void deleteNote(Long id, IfMatch ifMatch) {
+        Long userId = authenticatedUserService.getCurrentUserId();
+        int deleted = ifMatch == null || ifMatch.isAny()
+                ? noteRepository.deleteByIdAndUserId(id, userId)
+                : noteRepository.deleteByIdAndUserIdAndVersionIn(id, userId, ifMatch.versions());
+        if (deleted == 0) {
+            throw rejected(id, userId, ifMatch);
         }
+        noteTombstoneRepository.save(new NoteTombstone(id, userId, LocalDateTime.now()));
+        noteCache.evict(userId, id);
+        AfterCommit.run(() -> noteSearchIndex.remove(id));
+    }
 
     @Override
-    public void deleteNote(Long id) {
-        Note note = getNoteById(id);
-        noteRepository.delete(note);
+    public NoteChangesResponse listChanges(String since, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Long userId = authenticatedUserService.getCurrentUserId();
+        NoteCursor after = since == null || since.isBlank() ? SYNC_START : NoteCursor.decode(since);
+
+        // Both sources are read in (timestamp, id) order and merged, so the watermark is a single position
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<NoteResponse> notes = noteRepository.findChangedAfter(userId, after.updatedAt(), after.id(), limit);
+        List<NoteTombstone> tombstones = noteTombstoneRepository.findDeletedAfter(userId, after.updatedAt(), after.id(), limit);
+
+        List<NoteResponse> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        NoteCursor last = after;
+        int n = 0;
+        int t = 0;
+        while (updated.size() + deleted.size() < pageSize && (n < notes.size() || t < tombstones.size())) {
+            boolean takeNote = t >= tombstones.size()
+                    || (n < notes.size() && isBefore(notes.get(n), tombstones.get(t)));
+            if (takeNote) {
+                NoteResponse note = notes.get(n++);
+                updated.add(note);
+                last = new NoteCursor(note.updatedAt(), note.id());
+            } else {
+                NoteTombstone tombstone = tombstones.get(t++);
+                deleted.add(tombstone.getNoteId());
+                last = new NoteCursor(tombstone.getDeletedAt(), tombstone.getNoteId());
+            }
+        }
+        boolean hasMore = n < notes.size() || t < tombstones.size();
+
+        // Timestamps are taken before commit, so a write still in flight can land behind a watermark that
+        // was already handed out. Recent changes are returned but the watermark stays SYNC_OVERLAP behind,
+        // so the next call reads them again along with anything that committed late. Clients apply changes
+        // by id, so the repeats are harmless. The cap is skipped when it would not move past the request's
+        // own watermark, otherwise a burst of more than a page of recent changes could never be paged through.
+        NoteCursor horizon = new NoteCursor(LocalDateTime.now().minus(SYNC_OVERLAP), 0L);
+        if (isAfter(last, horizon) && isAfter(horizon, after)) {
+            last = horizon;
+        }
+
+        return new NoteChangesResponse(updated, deleted, last.encode(), hasMore);
+    }
+
+    @Override
+    public NoteSearchResponse searchNotes(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        int pageSize = resolvePageSize(size);
+        int offset;
+        try {
+            offset = Math.multiplyExact(pageNumber, pageSize);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Page is too large");
+        }
+        Long userId = authenticatedUserService.getCurrentUserId();
+
+        // Ask for one extra hit to find out whether another page exists
+        List<NoteSearchHit> hits = noteSearchIndex.search(userId, query.trim(), offset, pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        if (hasNext) {
+            hits = hits.subList(0, pageSize);
+        }
+
+        Map<Long, NoteResponse> notesById = noteRepository
+                .findResponsesByIdIn(hits.stream().map(NoteSearchHit::noteId).toList(), userId)
+                .stream()
+                .collect(Collectors.toMap(NoteResponse::id, Function.identity()));
+
+        // Keep the index's ranking; hits deleted since they were indexed are dropped
+        List<NoteResponse> notes = hits.stream()
+                .map(hit -> notesById.get(hit.noteId()))
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new NoteSearchResponse(notes, pageNumber, pageSize, hasNext);
+    }
+
+    // A versioned write that matched nothing failed its precondition only if the caller's note still exists;
+    // If-Match: * fails it exactly when there is no note at all
+    private RuntimeException rejected(Long id, Long userId, IfMatch ifMatch) {
+        if (ifMatch != null && ifMatch.isAny()) {
+            if (!noteRepository.existsById(id)) {
+                return new PreconditionFailedException("Note does not exist");
+            }
+        } else if (ifMatch != null) {
+            Optional<NoteResponse> current = noteRepository.findResponseByIdAndUserId(id, userId);
+            if (current.isPresent()) {
+                return new PreconditionFailedException("Note is at version " + current.get().version()
+                        + ", not " + ifMatch.versions().stream().map(String::valueOf).collect(Collectors.joining(" or ")));
+            }
+        }
+        return missingOrForbidden(id);
+    }
+
+    // Only reached when an owner-scoped statement matched nothing, so the common path stays a single query
+    private RuntimeException missingOrForbidden(Long id) {
+        if (noteRepository.existsById(id)) {
+            return new AccessDeniedException("You do not own this note");
+        }
+        return new NoteNotFoundException("Note not found");
+    }
+
+    private static boolean isAfter(NoteCursor position, NoteCursor other) {
+        int byTime = position.updatedAt().compareTo(other.updatedAt());
+        return byTime > 0 || (byTime == 0 && position.id() > other.id());
+    }
+
+    private static boolean isBefore(NoteResponse note, NoteTombstone tombstone) {
+        int byTime = note.updatedAt().compareTo(tombstone.getDeletedAt());
+        return byTime < 0 || (byTime == 0 && note.id() < tombstone.getNoteId());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
     }
 
 }
@@ -0,0 +1,59 @@
+package com.amalitech.notesApi.service;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.repository.NoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills the content length and preview columns for notes written before they existed. Runs at startup
+ * in small transactions; notes that already have a summary are skipped by the query, so a restart
+ * part-way through simply carries on. Only enabled with {@code notes.summary-backfill.enabled}, for the
+ * first start after upgrading: once every note has a summary the scan for missing ones finds nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.summary-backfill.enabled", havingValue = "true")
+public class NoteSummaryBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSummaryBackfill.class);
+    static final int BATCH_SIZE = 500;
+
+    private final NoteRepository noteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public NoteSummaryBackfill(NoteRepository noteRepository, PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long filled = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                // Always the first page: rows drop out of the result once they are filled
+                List<NoteResponse> notes = noteRepository.findResponsesMissingSummary(PageRequest.of(0, BATCH_SIZE));
+                notes.forEach(note -> noteRepository.updateSummary(
+                        note.id(), Note.lengthOf(note.content()), Note.previewOf(note.content())));
+                return notes.size();
+            });
+            if (batch == null || batch == 0) {
+                break;
+            }
+            filled += batch;
+        }
+        if (filled > 0) {
+            log.info("Backfilled content summaries for {} notes", filled);
+        }
+    }
+}
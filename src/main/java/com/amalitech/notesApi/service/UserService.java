@@ -3,11 +3,13 @@ package com.amalitech.notesApi.service;
 import com.amalitech.notesApi.dto.request.AuthRequest;
 import com.amalitech.notesApi.dto.response.AuthResponse;
 import com.amalitech.notesApi.dto.response.UserResponse;
+import com.amalitech.notesApi.exceptions.TooManyRequestsException;
 import com.amalitech.notesApi.exceptions.UserExists;
 import com.amalitech.notesApi.models.User;
 import com.amalitech.notesApi.repository.UserRepository;
 import com.amalitech.notesApi.security.JwtUtil;
-import com.amalitech.notesApi.security.PasswordUtils;
+import com.amalitech.notesApi.security.PasswordHasher;
+import com.amalitech.notesApi.security.UserIdentityCache;
 import com.amalitech.notesApi.service.interfaces.UserServiceInterface;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
@@ -19,21 +21,23 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @AllArgsConstructor
 public class UserService implements UserServiceInterface , UserDetailsService {
     private UserRepository userRepository;
     private JwtUtil jwtUtil;
+    private PasswordHasher passwordHasher;
+    private UserIdentityCache userIdentityCache;
 
     @Override
-    public void createUser(AuthRequest userRequest) {
+    public CompletableFuture<Void> createUser(AuthRequest userRequest) {
         if (userRepository.existsByEmail(userRequest.email())) {
             throw new UserExists("User with given email or username already exists");
         }
-        String password = PasswordUtils.hashPassword(userRequest.password());
-        User user = new User(userRequest.email(),password);
-        userRepository.save(user);
+        return passwordHasher.hash(userRequest.password())
+                .thenAccept(password -> userRepository.save(new User(userRequest.email(), password)));
     }
 
     @Override
@@ -52,17 +56,22 @@ public class UserService implements UserServiceInterface , UserDetailsService {
     }
 
     @Override
-    public UserResponse updateUser(Long id, AuthRequest userRequest) {
+    public CompletableFuture<UserResponse> updateUser(Long id, AuthRequest userRequest) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        String password = PasswordUtils.hashPassword(userRequest.password());
-
-
-        existingUser.setEmail(userRequest.email());
-        existingUser.setPassword(password);
-        userRepository.save(existingUser);
-        return new UserResponse(existingUser.getEmail());
+        // Like registration, the update completes on the hashing pool instead of blocking the caller
+        return passwordHasher.hash(userRequest.password()).thenApply(password -> {
+            String previousEmail = existingUser.getEmail();
+            existingUser.setEmail(userRequest.email());
+            existingUser.setPassword(password);
+            // Tokens carry the version they were issued with, so changed credentials can be told apart
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+            userRepository.save(existingUser);
+            // The old email must stop resolving and the new token version must be picked up
+            userIdentityCache.invalidate(existingUser.getId(), previousEmail);
+            return new UserResponse(existingUser.getEmail());
+        });
     }
 
     @Override
@@ -71,26 +80,45 @@ public class UserService implements UserServiceInterface , UserDetailsService {
                 .orElseThrow(() -> new EntityNotFoundException("user not found"));
 
         userRepository.deleteById(existingUser.getId());
+        userIdentityCache.invalidate(existingUser.getId(), existingUser.getEmail());
     }
 
     @Override
-    public AuthResponse loginUser(AuthRequest userRequest) {
+    public CompletableFuture<AuthResponse> loginUser(AuthRequest userRequest) {
         String email = userRequest.email();
         String password = userRequest.password();
         User user = userRepository.findByEmail(email).orElse(null);
         if (user != null) {
-            boolean authenticated = PasswordUtils.verifyPassword(password, user.getPassword());
-            if (!authenticated) {
-                throw new IllegalArgumentException("Invalid credentials");
-            } else {
+            return passwordHasher.verify(password, user.getPassword()).thenApply(authenticated -> {
+                if (!authenticated) {
+                    throw new IllegalArgumentException("Invalid credentials");
+                }
+                upgradePasswordHash(user, password);
                 String token = jwtUtil.generateToken(user);
                 return new AuthResponse(token);
-            }
+            });
         } else {
             throw new IllegalArgumentException("User with given email does not exist");
         }
     }
 
+    /**
+     * Rehashes a password stored with an older, cheaper work factor. Runs in the background
+     * and is skipped when the hashing pool is busy; the next login will try again.
+     */
+    private void upgradePasswordHash(User user, String plainPassword) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        String currentHash = user.getPassword();
+        try {
+            passwordHasher.hash(plainPassword)
+                    .thenAccept(newHash -> userRepository.replacePasswordHash(user.getId(), currentHash, newHash));
+        } catch (TooManyRequestsException e) {
+            // Not worth failing a successful login over
+        }
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(username).orElseThrow(
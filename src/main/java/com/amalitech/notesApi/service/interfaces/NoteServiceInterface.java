@@ -1,14 +1,23 @@
 package com.amalitech.notesApi.service.interfaces;
 
 import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NoteChangesResponse;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.dto.response.NoteSearchResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryPageResponse;
 import com.amalitech.notesApi.models.Note;
-
-import java.util.List;
+import com.amalitech.notesApi.service.IfMatch;
 
 public interface  NoteServiceInterface {
     Note createNote(NoteRequest note);
-    List<Note> getAllNotes();
-    Note getNoteById(Long id);
-    Note updateNote(Long id, NoteRequest note);
+    NotePageResponse listNotes(String cursor, Integer size);
+    NoteSummaryPageResponse listNoteSummaries(String cursor, Integer size);
+    NoteChangesResponse listChanges(String since, Integer size);
+    NoteResponse getNoteById(Long id);
+    NoteResponse updateNote(Long id, NoteRequest note);
+    NoteResponse updateNote(Long id, NoteRequest note, IfMatch ifMatch);
     void deleteNote(Long id);
+    void deleteNote(Long id, IfMatch ifMatch);
+    NoteSearchResponse searchNotes(String query, Integer page, Integer size);
 }
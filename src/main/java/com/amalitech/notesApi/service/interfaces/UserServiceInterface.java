@@ -8,18 +8,19 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserServiceInterface {
-    void createUser(AuthRequest userRequest);
+    CompletableFuture<Void> createUser(AuthRequest userRequest);
 
     UserResponse getUserById(Long id);
 
     List<UserResponse> getAllUsers();
 
-    UserResponse updateUser(Long id, AuthRequest userRequest);
+    CompletableFuture<UserResponse> updateUser(Long id, AuthRequest userRequest);
 
     void deleteUser(Long id);
 
-    AuthResponse loginUser(AuthRequest userRequest);
+    CompletableFuture<AuthResponse> loginUser(AuthRequest userRequest);
 
 }
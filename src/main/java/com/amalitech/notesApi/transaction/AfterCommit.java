@@ -0,0 +1,32 @@
+package com.amalitech.notesApi.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects outside the database (caches, search index, other nodes) until the current
+ * transaction has committed, so nothing observes a write that may still roll back.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action once the current transaction commits, not at all if it rolls back, and
+     * immediately when there is no transaction. The action must not register further
+     * synchronizations itself: those would never run, since the transaction is already complete.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.amalitech.notesApi.reactive;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveNoteIdAllocatorTest {
+
+    @Test
+    void shouldAllocateTheIdsHibernateReservesForEachSequenceValue() {
+        // Given: a fresh sequence, incremented by 50
+        ReactiveNoteRepository noteRepository = mock(ReactiveNoteRepository.class);
+        when(noteRepository.nextIdBlock()).thenReturn(Mono.just(1L), Mono.just(51L), Mono.just(101L));
+        ReactiveNoteIdAllocator allocator = new ReactiveNoteIdAllocator(noteRepository);
+
+        // When
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            ids.add(allocator.nextId().block());
+        }
+
+        // Then: the initial value is a block of its own, later values cover v - 49 .. v, one fetch per block
+        assertThat(ids).containsExactlyElementsOf(LongStream.rangeClosed(1, 101).boxed().toList());
+        verify(noteRepository, times(3)).nextIdBlock();
+    }
+
+    @Test
+    void shouldStartBelowTheSequenceValueWhenTheSequenceHasAdvanced() {
+        // Given: the servlet side has already taken the blocks up to 151
+        ReactiveNoteRepository noteRepository = mock(ReactiveNoteRepository.class);
+        when(noteRepository.nextIdBlock()).thenReturn(Mono.just(201L));
+        ReactiveNoteIdAllocator allocator = new ReactiveNoteIdAllocator(noteRepository);
+
+        // Then
+        assertThat(allocator.nextId().block()).isEqualTo(152L);
+        assertThat(allocator.nextId().block()).isEqualTo(153L);
+    }
+}
@@ -0,0 +1,164 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.springSecurity;
+
+@SpringBootTest(classes = ReactiveNotesApiApplication.class)
+@ActiveProfiles(ReactiveNotesApiApplication.PROFILE)
+class ReactiveNoteRouterTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setup() {
+        client = WebTestClient.bindToApplicationContext(context)
+                .apply(springSecurity())
+                .configureClient()
+                .build();
+    }
+
+    @Test
+    void shouldRejectRequestWithoutToken() {
+        client.get().uri("/api/v1/notes")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void shouldCreateReadUpdateAndDeleteNote() {
+        String token = tokenFor(1L, "owner@example.com");
+
+        NoteResponse created = client.post().uri("/api/v1/notes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Reactive\",\"content\":\"First\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(NoteResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(created).isNotNull();
+        assertThat(created.id()).isNotNull();
+
+        client.get().uri("/api/v1/notes/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.title").isEqualTo("Reactive");
+
+        client.put().uri("/api/v1/notes/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Edited\",\"content\":\"Second\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.content").isEqualTo("Second");
+
+        client.get().uri("/api/v1/notes?size=5")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.notes[0].title").isEqualTo("Edited");
+
+        client.delete().uri("/api/v1/notes/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+
+        client.get().uri("/api/v1/notes/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.details").isEqualTo("Note not found");
+    }
+
+    @Test
+    void shouldForbidAccessToAnotherUsersNote() {
+        NoteResponse created = client.post().uri("/api/v1/notes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor(2L, "first@example.com"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Private\",\"content\":\"Mine\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(NoteResponse.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(created).isNotNull();
+
+        client.delete().uri("/api/v1/notes/{id}", created.id())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor(3L, "second@example.com"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void shouldRejectBlankTitle() {
+        client.post().uri("/api/v1/notes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor(4L, "blank@example.com"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\" \",\"content\":\"Body\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.details").isEqualTo("Title cannot be empty");
+    }
+
+    @Test
+    void shouldRejectTokenOfUnknownUser() {
+        User user = new User();
+        user.setId(999L);
+        user.setEmail("ghost@example.com");
+
+        client.get().uri("/api/v1/notes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void shouldRejectTokenIssuedBeforeCredentialsChanged() {
+        // Given: a token issued at version 0, and the user's credentials changed since
+        String staleToken = tokenFor(5L, "changed@example.com");
+        databaseClient.sql("update users set token_version = 1 where id = 5").then().block();
+
+        // Then
+        client.get().uri("/api/v1/notes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + staleToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private String tokenFor(Long id, String email) {
+        databaseClient.sql("merge into users (id, email, password, token_version) key (id) values (:id, :email, 'x', 0)")
+                .bind("id", id)
+                .bind("email", email)
+                .then()
+                .block();
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return jwtUtil.generateToken(user);
+    }
+}
@@ -0,0 +1,78 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code notes} table. The owner is a plain column: there are no lazy associations
+ * on the reactive side.
+ */
+@Table("notes")
+@Getter
+@Setter
+public class ReactiveNote implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String content;
+
+    @Column("content_length")
+    private Integer contentLength;
+
+    @Column("content_preview")
+    private String contentPreview;
+
+    @Column("user_id")
+    private Long userId;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    // Bumped by every update statement, shared with the servlet side's optimistic locking
+    private Long version;
+
+    // Ids are taken from the sequence before saving, so save() cannot tell a new row by a null id
+    @Transient
+    private boolean newEntity;
+
+    public ReactiveNote() {
+
+    }
+
+    public ReactiveNote(Long id, Long userId, String title, String content, LocalDateTime now) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.content = content;
+        this.contentLength = Note.lengthOf(content);
+        this.contentPreview = Note.previewOf(content);
+        this.createdAt = now;
+        this.updatedAt = now;
+        this.version = 0L;
+        this.newEntity = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public NoteResponse toResponse() {
+        return new NoteResponse(id, title, content, createdAt, updatedAt, version);
+    }
+}
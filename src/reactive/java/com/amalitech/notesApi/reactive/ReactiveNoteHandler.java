@@ -0,0 +1,72 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler functions behind {@link ReactiveNoteRouter}; status codes and bodies match {@code NoteController}.
+ */
+@Component
+@Profile(ReactiveNotesApiApplication.PROFILE)
+@AllArgsConstructor
+public class ReactiveNoteHandler {
+
+    private final ReactiveNoteService noteService;
+
+    public Mono<ServerResponse> health(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("Notes API is running");
+    }
+
+    public Mono<ServerResponse> createNote(ServerRequest request) {
+        return request.bodyToMono(NoteRequest.class)
+                .flatMap(noteService::createNote)
+                .flatMap(note -> ServerResponse.status(HttpStatus.CREATED).bodyValue(note));
+    }
+
+    public Mono<ServerResponse> getNotes(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer size = request.queryParam("size").map(Integer::valueOf).orElse(null);
+        return noteService.listNotes(cursor, size)
+                .flatMap(page -> page.notes().isEmpty()
+                        ? ServerResponse.noContent().build()
+                        : ServerResponse.ok().bodyValue(page));
+    }
+
+    public Mono<ServerResponse> exportNotes(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"")
+                .body(noteService.exportNotes(), NoteResponse.class);
+    }
+
+    public Mono<ServerResponse> getNote(ServerRequest request) {
+        return noteService.getNoteById(noteId(request))
+                .flatMap(note -> ServerResponse.ok().bodyValue(note));
+    }
+
+    public Mono<ServerResponse> updateNote(ServerRequest request) {
+        Long id = noteId(request);
+        return request.bodyToMono(NoteRequest.class)
+                .flatMap(body -> noteService.updateNote(id, body))
+                .flatMap(note -> ServerResponse.ok().bodyValue(note));
+    }
+
+    public Mono<ServerResponse> deleteNote(ServerRequest request) {
+        Long id = noteId(request);
+        return noteService.deleteNote(id)
+                .then(ServerResponse.ok().bodyValue("Note with id " + id + " deleted successfully"));
+    }
+
+    private static Long noteId(ServerRequest request) {
+        return Long.valueOf(request.pathVariable("id"));
+    }
+}
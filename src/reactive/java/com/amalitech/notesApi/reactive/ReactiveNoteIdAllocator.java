@@ -0,0 +1,64 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.models.Note;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out note ids from {@code notes_seq} the way Hibernate's pooled optimizer does on the servlet side:
+ * a sequence value v reserves the ids v - 49 .. v, except the sequence's initial value, which reserves only
+ * itself. Both stacks can then insert into the same table without their ids colliding, and the reactive
+ * side only goes to the sequence once per block.
+ */
+@Component
+@Profile(ReactiveNotesApiApplication.PROFILE)
+public class ReactiveNoteIdAllocator {
+
+    // @SequenceGenerator's default initialValue, which notes_seq is created with
+    private static final long INITIAL_VALUE = 1;
+
+    private final ReactiveNoteRepository noteRepository;
+    private final AtomicReference<IdBlock> block = new AtomicReference<>(new IdBlock(1, 0));
+
+    public ReactiveNoteIdAllocator(ReactiveNoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = block.get().take();
+            if (id != IdBlock.EXHAUSTED) {
+                return Mono.just(id);
+            }
+            // Callers racing past the end of a block each fetch their own; the loser's leftover ids are skipped
+            return noteRepository.nextIdBlock().map(hi -> {
+                IdBlock fresh = new IdBlock(hi == INITIAL_VALUE ? hi : hi - (Note.ID_ALLOCATION_SIZE - 1), hi);
+                long first = fresh.take();
+                block.set(fresh);
+                return first;
+            });
+        });
+    }
+
+    private static final class IdBlock {
+
+        static final long EXHAUSTED = -1;
+
+        private final AtomicLong next;
+        private final long last;
+
+        IdBlock(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        long take() {
+            long id = next.getAndIncrement();
+            return id <= last ? id : EXHAUSTED;
+        }
+    }
+}
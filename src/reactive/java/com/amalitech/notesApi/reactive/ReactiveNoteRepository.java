@@ -0,0 +1,74 @@
+package com.amalitech.notesApi.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Same owner-scoped statements as the JPA {@code NoteRepository}, written as SQL against the shared schema.
+ */
+public interface ReactiveNoteRepository extends R2dbcRepository<ReactiveNote, Long> {
+
+    /**
+     * Takes a value from the sequence Hibernate allocates note ids from. Each value reserves a block of
+     * ids; see {@link ReactiveNoteIdAllocator}.
+     */
+    @Query("select nextval('notes_seq')")
+    Mono<Long> nextIdBlock();
+
+    Mono<ReactiveNote> findByIdAndUserId(Long id, Long userId);
+
+    @Query("""
+            select * from notes
+            where user_id = :userId
+            order by updated_at desc, id desc
+            limit :limit
+            """)
+    Flux<ReactiveNote> findFirstPage(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query("""
+            select * from notes
+            where user_id = :userId
+              and (updated_at < :updatedAt or (updated_at = :updatedAt and id < :id))
+            order by updated_at desc, id desc
+            limit :limit
+            """)
+    Flux<ReactiveNote> findPageAfter(@Param("userId") Long userId,
+                                     @Param("updatedAt") LocalDateTime updatedAt,
+                                     @Param("id") Long id,
+                                     @Param("limit") int limit);
+
+    @Query("select * from notes where user_id = :userId order by id")
+    Flux<ReactiveNote> streamByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("""
+            update notes
+            set title = :title, content = :content,
+                content_length = :contentLength, content_preview = :contentPreview,
+                updated_at = :updatedAt, version = version + 1
+            where id = :id and user_id = :userId
+            """)
+    Mono<Integer> updateByIdAndUserId(@Param("id") Long id,
+                                      @Param("userId") Long userId,
+                                      @Param("title") String title,
+                                      @Param("content") String content,
+                                      @Param("contentLength") Integer contentLength,
+                                      @Param("contentPreview") String contentPreview,
+                                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("delete from notes where id = :id and user_id = :userId")
+    Mono<Integer> deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("insert into note_tombstones (note_id, user_id, deleted_at) values (:noteId, :userId, :deletedAt)")
+    Mono<Integer> insertTombstone(@Param("noteId") Long noteId,
+                                  @Param("userId") Long userId,
+                                  @Param("deletedAt") LocalDateTime deletedAt);
+}
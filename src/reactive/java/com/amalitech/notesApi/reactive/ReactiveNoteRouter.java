@@ -0,0 +1,62 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.exceptions.InvalidNoteException;
+import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The {@code api/v1/notes} routes of {@code NoteController} as a functional router. Errors are mapped to
+ * the same status codes and body shape as {@code GlobalExceptionHandler}.
+ */
+@Configuration
+@Profile(ReactiveNotesApiApplication.PROFILE)
+public class ReactiveNoteRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> noteRoutes(ReactiveNoteHandler handler) {
+        return route()
+                .nest(path("/api/v1/notes"), notes -> notes
+                        .GET("/health", handler::health)
+                        .GET("/export", handler::exportNotes)
+                        .GET("/{id}", handler::getNote)
+                        .PUT("/{id}", handler::updateNote)
+                        .DELETE("/{id}", handler::deleteNote)
+                        .GET("", handler::getNotes)
+                        .POST("", handler::createNote))
+                .onError(NoteNotFoundException.class,
+                        (ex, request) -> error(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), request))
+                .onError(InvalidNoteException.class,
+                        (ex, request) -> error(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), request))
+                .onError(IllegalArgumentException.class,
+                        (ex, request) -> error(HttpStatus.BAD_REQUEST,
+                                ex.getMessage() == null ? "Invalid parameter" : ex.getMessage(), null, request))
+                .onError(AccessDeniedException.class,
+                        (ex, request) -> error(HttpStatus.FORBIDDEN, "Forbidden", ex.getMessage(), request))
+                .build();
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String error, Object details, ServerRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", error);
+        if (details != null) body.put("details", details);
+        body.put("path", request.path());
+        return ServerResponse.status(status).bodyValue(body);
+    }
+}
@@ -0,0 +1,155 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.exceptions.InvalidNoteException;
+import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.security.AuthenticatedUser;
+import com.amalitech.notesApi.service.NoteCursor;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@code NoteService} for the reactive profile. Same validation, keyset
+ * paging and owner-scoped statements; no request thread is held while the database works.
+ */
+@Service
+@Profile(ReactiveNotesApiApplication.PROFILE)
+@AllArgsConstructor
+public class ReactiveNoteService {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private ReactiveNoteRepository noteRepository;
+    private ReactiveNoteIdAllocator idAllocator;
+    private TransactionalOperator transactionalOperator;
+
+    public Mono<NoteResponse> createNote(NoteRequest request) {
+        return validate(request)
+                .then(currentUserId())
+                .flatMap(userId -> idAllocator.nextId()
+                        .map(id -> new ReactiveNote(id, userId, request.title(), request.content(), LocalDateTime.now())))
+                .flatMap(noteRepository::save)
+                .map(ReactiveNote::toResponse)
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<NotePageResponse> listNotes(String cursor, Integer size) {
+        return Mono.fromCallable(() -> resolvePageSize(size))
+                .zipWith(currentUserId())
+                .flatMap(args -> {
+                    int pageSize = args.getT1();
+                    Long userId = args.getT2();
+                    // Fetch one extra row to find out whether another page exists without a count query
+                    Flux<ReactiveNote> notes;
+                    if (cursor == null || cursor.isBlank()) {
+                        notes = noteRepository.findFirstPage(userId, pageSize + 1);
+                    } else {
+                        NoteCursor after = NoteCursor.decode(cursor);
+                        notes = noteRepository.findPageAfter(userId, after.updatedAt(), after.id(), pageSize + 1);
+                    }
+                    return notes.map(ReactiveNote::toResponse)
+                            .collectList()
+                            .map(page -> toPage(page, pageSize));
+                });
+    }
+
+    public Mono<NoteResponse> getNoteById(Long id) {
+        return currentUserId()
+                .flatMap(userId -> noteRepository.findByIdAndUserId(id, userId))
+                .map(ReactiveNote::toResponse)
+                .switchIfEmpty(Mono.defer(() -> this.<NoteResponse>missingOrForbidden(id)));
+    }
+
+    public Mono<NoteResponse> updateNote(Long id, NoteRequest request) {
+        return validate(request)
+                .then(currentUserId())
+                .flatMap(userId -> noteRepository
+                        .updateByIdAndUserId(id, userId, request.title(), request.content(),
+                                Note.lengthOf(request.content()), Note.previewOf(request.content()), LocalDateTime.now())
+                        .flatMap(updated -> updated == 0
+                                ? this.<NoteResponse>missingOrForbidden(id)
+                                // createdAt is not known to the update statement, so the row is read back
+                                : noteRepository.findByIdAndUserId(id, userId).map(ReactiveNote::toResponse)))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> deleteNote(Long id) {
+        return currentUserId()
+                .flatMap(userId -> noteRepository.deleteByIdAndUserId(id, userId)
+                        .flatMap(deleted -> deleted == 0
+                                ? this.<Integer>missingOrForbidden(id)
+                                : noteRepository.insertTombstone(id, userId, LocalDateTime.now())))
+                .as(transactionalOperator::transactional)
+                .then();
+    }
+
+    /**
+     * All of the caller's notes in id order. Rows are pulled from the driver as the client consumes them.
+     */
+    public Flux<NoteResponse> exportNotes() {
+        return currentUserId()
+                .flatMapMany(noteRepository::streamByUserId)
+                .map(ReactiveNote::toResponse);
+    }
+
+    private Mono<Long> currentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getPrincipal)
+                .filter(AuthenticatedUser.class::isInstance)
+                .map(principal -> ((AuthenticatedUser) principal).id())
+                .switchIfEmpty(Mono.error(() -> new AccessDeniedException("Not authenticated")));
+    }
+
+    // Only reached when an owner-scoped statement matched nothing, so the common path stays a single query
+    private <T> Mono<T> missingOrForbidden(Long id) {
+        return noteRepository.existsById(id)
+                .flatMap(exists -> Mono.error(exists
+                        ? new AccessDeniedException("You do not own this note")
+                        : new NoteNotFoundException("Note not found")));
+    }
+
+    private static Mono<Void> validate(NoteRequest request) {
+        if (request.title() == null || request.title().isBlank()) {
+            return Mono.error(new InvalidNoteException("Title cannot be empty"));
+        }
+        if (request.content() == null || request.content().isBlank()) {
+            return Mono.error(new InvalidNoteException("Content cannot be empty"));
+        }
+        return Mono.empty();
+    }
+
+    private static NotePageResponse toPage(List<NoteResponse> notes, int pageSize) {
+        String nextCursor = null;
+        if (notes.size() > pageSize) {
+            notes = notes.subList(0, pageSize);
+            NoteResponse last = notes.get(pageSize - 1);
+            nextCursor = new NoteCursor(last.updatedAt(), last.id()).encode();
+        }
+        return new NotePageResponse(notes, nextCursor);
+    }
+
+    private static int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+}
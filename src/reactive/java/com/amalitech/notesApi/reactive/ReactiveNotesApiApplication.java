@@ -0,0 +1,27 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.security.JwtUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Entry point for the WebFlux + R2DBC variant of the notes API. Only this package is scanned, so none of
+ * the servlet controllers, JPA services or the servlet security chain are created; {@link JwtUtil} is
+ * shared so both stacks accept the same tokens.
+ * Built with {@code mvn -Preactive}; the servlet application ignores this class unless the profile is active.
+ */
+@SpringBootApplication
+@Profile(ReactiveNotesApiApplication.PROFILE)
+@Import(JwtUtil.class)
+public class ReactiveNotesApiApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveNotesApiApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
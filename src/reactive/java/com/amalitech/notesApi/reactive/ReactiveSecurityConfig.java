@@ -0,0 +1,50 @@
+package com.amalitech.notesApi.reactive;
+
+import com.amalitech.notesApi.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveNotesApiApplication.PROFILE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil,
+                                                         ReactiveTokenVersionCache tokenVersionCache,
+                                                         MeterRegistry meterRegistry) {
+        return http
+                // Stateless bearer-token API: no CSRF, sessions, login form or basic auth
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/actuator/**").authenticated()
+                        .pathMatchers("/actuator/**").denyAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(new ReactiveJwtFilter(jwtUtil, tokenVersionCache, meterRegistry), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * The JPA auto-configuration still contributes a blocking transaction manager, so the reactive one
+     * is wired explicitly and used through a {@link TransactionalOperator}.
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,57 @@
+package com.amalitech.notesApi.reactive;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of the id-keyed half of {@code UserIdentityCache}: the current token version of a
+ * user, read without blocking and cached, so a token is only accepted while its user exists and has not
+ * changed credentials. Unknown ids are cached too, since ids are never reused.
+ * Credential changes happen on the servlet side, whose invalidations do not reach this cache, so entries
+ * expire sooner than there.
+ */
+@Component
+@Profile(ReactiveNotesApiApplication.PROFILE)
+public class ReactiveTokenVersionCache {
+
+    private final DatabaseClient databaseClient;
+    private final AsyncCache<Long, Optional<Integer>> tokenVersions;
+
+    public ReactiveTokenVersionCache(
+            DatabaseClient databaseClient,
+            @Value("${notes.users.token-version-cache.maximum-size:10000}") long maximumSize,
+            @Value("${notes.users.token-version-cache.expire-after-write:1m}") Duration expireAfterWrite) {
+        this.databaseClient = databaseClient;
+        this.tokenVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Token version of the user with the given id, or empty when there is no such user (any more).
+     */
+    public Mono<Integer> find(Long id) {
+        // Concurrent callers share one lookup; cancelling one of them must not cancel it for the others
+        return Mono.fromFuture(tokenVersions.get(id, (key, executor) -> load(key).toFuture()), true)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    private Mono<Optional<Integer>> load(Long id) {
+        return databaseClient.sql("select token_version from users where id = :id")
+                .bind("id", id)
+                .map(row -> row.get("token_version", Integer.class))
+                .one()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+}
@@ -0,0 +1,32 @@
+-- Mirrors the tables Hibernate generates for User, Note and NoteTombstone, for running the reactive stack on H2
+create table if not exists users (
+    id bigint generated by default as identity primary key,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    created_at timestamp,
+    token_version integer default 0 not null
+);
+
+create sequence if not exists notes_seq start with 1 increment by 50;
+
+create table if not exists notes (
+    id bigint not null primary key,
+    title varchar(255) not null,
+    content varchar not null,
+    content_length integer,
+    content_preview varchar(120),
+    user_id bigint not null,
+    created_at timestamp,
+    updated_at timestamp,
+    version bigint default 0 not null
+);
+
+create index if not exists idx_notes_user_updated_id on notes (user_id, updated_at, id);
+
+create table if not exists note_tombstones (
+    note_id bigint not null primary key,
+    user_id bigint not null,
+    deleted_at timestamp not null
+);
+
+create index if not exists idx_note_tombstones_user_deleted_note on note_tombstones (user_id, deleted_at, note_id);
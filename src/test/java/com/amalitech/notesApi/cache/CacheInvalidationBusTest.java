@@ -0,0 +1,171 @@
+package com.amalitech.notesApi.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationBusTest {
+
+    private InMemoryCacheInvalidationTransport transport;
+    private SimpleMeterRegistry meterRegistry;
+    private CacheInvalidationBus node;
+    private CacheInvalidationBus otherNode;
+    private List<String> evictedOnNode;
+    private List<String> evictedOnOtherNode;
+
+    @BeforeEach
+    void setup() {
+        // One shared transport stands in for the network between two nodes
+        transport = new InMemoryCacheInvalidationTransport();
+        meterRegistry = new SimpleMeterRegistry();
+        node = new CacheInvalidationBus(transport, meterRegistry);
+        otherNode = new CacheInvalidationBus(transport, new SimpleMeterRegistry());
+        evictedOnNode = new ArrayList<>();
+        evictedOnOtherNode = new ArrayList<>();
+        node.subscribe("notes", evictedOnNode::add, evictedOnNode::clear);
+        otherNode.subscribe("notes", evictedOnOtherNode::add, () -> evictedOnOtherNode.add("*"));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictOnOtherNodesButNotOnSender() {
+        // When
+        node.publish("notes", "1:42");
+
+        // Then
+        assertThat(evictedOnOtherNode).containsExactly("1:42");
+        assertThat(evictedOnNode).isEmpty();
+        assertThat(meterRegistry.get("notes.cache.invalidations").tag("direction", "sent").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldIgnoreCachesWithoutSubscriber() {
+        // When
+        node.publish("users", "user@example.com");
+
+        // Then
+        assertThat(evictedOnOtherNode).isEmpty();
+    }
+
+    @Test
+    void shouldSendOnlyAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        node.publish("notes", "1:42");
+
+        // Then
+        assertThat(evictedOnOtherNode).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(evictedOnOtherNode).containsExactly("1:42");
+    }
+
+    @Test
+    void shouldNotSendForRolledBackTransaction() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        node.publish("notes", "1:42");
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(evictedOnOtherNode).isEmpty();
+    }
+
+    @Test
+    void shouldHandMessageToTransactionalTransportWithinTransaction() {
+        // Given: a transport whose sends are delivered by the database when the transaction commits
+        List<String> sent = new ArrayList<>();
+        CacheInvalidationTransport transactionalTransport = new CacheInvalidationTransport() {
+            @Override
+            public void send(String message) {
+                sent.add(message);
+            }
+
+            @Override
+            public void listen(Listener listener) {
+            }
+
+            @Override
+            public boolean sendsWithTransaction() {
+                return true;
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transactionalTransport, registry);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        bus.publish("notes", "1:42");
+
+        // Then: sent on the transaction's connection straight away, counted once it commits
+        assertThat(sent).hasSize(1);
+        assertThat(registry.get("notes.cache.invalidations").tag("direction", "sent").counter().count())
+                .isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(registry.get("notes.cache.invalidations").tag("direction", "sent").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropWholeCacheWhenMessagesWereMissed() {
+        // Given
+        List<CacheInvalidationTransport.Listener> listeners = new ArrayList<>();
+        CacheInvalidationTransport gappyTransport = new CacheInvalidationTransport() {
+            @Override
+            public void send(String message) {
+            }
+
+            @Override
+            public void listen(Listener listener) {
+                listeners.add(listener);
+            }
+        };
+        CacheInvalidationBus bus = new CacheInvalidationBus(gappyTransport, new SimpleMeterRegistry());
+        List<String> evicted = new ArrayList<>();
+        bus.subscribe("notes", evicted::add, () -> evicted.add("*"));
+
+        // When
+        listeners.forEach(CacheInvalidationTransport.Listener::onGap);
+
+        // Then
+        assertThat(evicted).containsExactly("*");
+    }
+
+    @Test
+    void shouldIgnoreMalformedMessages() {
+        // When
+        transport.send("not-an-invalidation");
+
+        // Then
+        assertThat(evictedOnNode).isEmpty();
+        assertThat(evictedOnOtherNode).isEmpty();
+    }
+
+    @Test
+    void shouldRoundTripKeysContainingSeparator() {
+        // Given
+        CacheInvalidation invalidation = new CacheInvalidation("node", "userIdentity", "a|b@example.com");
+
+        // When/Then
+        assertThat(CacheInvalidation.decode(invalidation.encode())).isEqualTo(invalidation);
+    }
+}
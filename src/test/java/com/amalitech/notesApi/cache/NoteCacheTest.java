@@ -0,0 +1,122 @@
+package com.amalitech.notesApi.cache;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteCacheTest {
+
+    private NoteCache node;
+    private NoteCache otherNode;
+
+    @BeforeEach
+    void setup() {
+        InMemoryCacheInvalidationTransport transport = new InMemoryCacheInvalidationTransport();
+        node = newNode(transport);
+        otherNode = newNode(transport);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictOtherNodesCopyWhenNoteIsUpdated() {
+        // Given
+        otherNode.get(1L, 42L, () -> note("Old"));
+
+        // When
+        node.put(1L, note("New"));
+
+        // Then
+        assertThat(node.get(1L, 42L, () -> note("Loaded")).title()).isEqualTo("New");
+        assertThat(otherNode.get(1L, 42L, () -> note("Reloaded")).title()).isEqualTo("Reloaded");
+    }
+
+    @Test
+    void shouldEvictOtherNodesCopyWhenNoteIsDeleted() {
+        // Given
+        otherNode.get(1L, 42L, () -> note("Old"));
+
+        // When
+        node.evict(1L, 42L);
+
+        // Then
+        assertThat(otherNode.get(1L, 42L, () -> note("Reloaded")).title()).isEqualTo("Reloaded");
+    }
+
+    @Test
+    void shouldKeepCommittedNoteUntilTransactionCommits() {
+        // Given
+        node.get(1L, 42L, () -> note("Old"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        node.put(1L, note("New"));
+
+        // Then
+        assertThat(node.get(1L, 42L, () -> note("Loaded")).title()).isEqualTo("Old");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(node.get(1L, 42L, () -> note("Loaded")).title()).isEqualTo("New");
+    }
+
+    @Test
+    void shouldLeaveCacheAloneWhenTransactionRollsBack() {
+        // Given
+        node.get(1L, 42L, () -> note("Old"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        node.evict(1L, 42L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Then
+        assertThat(node.get(1L, 42L, () -> note("Reloaded")).title()).isEqualTo("Old");
+    }
+
+    @Test
+    void shouldNotCacheRowLoadedBeforeConcurrentEvictionCommitted() {
+        // Given: a miss reads the old row, and an update commits and evicts before the fill
+        NoteResponse loaded = node.get(1L, 42L, () -> {
+            NoteResponse old = note("Old");
+            node.evict(1L, 42L);
+            return old;
+        });
+
+        // Then: the stale row is returned to its reader but not kept
+        assertThat(loaded.title()).isEqualTo("Old");
+        assertThat(node.get(1L, 42L, () -> note("Reloaded")).title()).isEqualTo("Reloaded");
+    }
+
+    @Test
+    void shouldKeepOtherUsersEntries() {
+        // Given
+        otherNode.get(2L, 42L, () -> note("Other user"));
+
+        // When
+        node.evict(1L, 42L);
+
+        // Then
+        assertThat(otherNode.get(2L, 42L, () -> note("Reloaded")).title()).isEqualTo("Other user");
+    }
+
+    private static NoteCache newNode(InMemoryCacheInvalidationTransport transport) {
+        return new NoteCache(new ConcurrentMapCacheManager(NoteCache.CACHE_NAME),
+                new CacheInvalidationBus(transport, new SimpleMeterRegistry()));
+    }
+
+    private static NoteResponse note(String title) {
+        return new NoteResponse(42L, title, "Content", null, null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.amalitech.notesApi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setup() {
+        routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void clearTransactionState() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() throws Exception {
+        // Given
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection connection = routing.getConnection();
+
+        // Then
+        assertSame(replicaConnection, connection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void shouldRouteWritesAndNonTransactionalWorkToPrimary() throws Exception {
+        // Given
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // When
+        Connection connection = routing.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void shouldDeferRoutingUntilFirstUseWhenProxiedLazily() throws Exception {
+        // Given: the connection is handed out before the transaction is marked read-only
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        Connection connection = ReplicaDataSourceConfig.lazy(routing).getConnection();
+
+        // When
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        connection.createStatement();
+
+        // Then: the statement runs on the replica, and the primary is not even probed for connection defaults
+        verify(replicaConnection).createStatement();
+        verifyNoInteractions(primary);
+    }
+}
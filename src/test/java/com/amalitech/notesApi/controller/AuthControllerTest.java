@@ -8,7 +8,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.ResponseEntity;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class AuthControllerTest {
@@ -31,9 +35,10 @@ class AuthControllerTest {
     @Test
     void registerUser_success() {
         // Mock behavior
-        Mockito.doNothing().when(userService).createUser(registerRequest);
+        Mockito.when(userService.createUser(registerRequest))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
-        ResponseEntity<String> response = authController.register(registerRequest);
+        ResponseEntity<String> response = authController.register(registerRequest).join();
         assertEquals("User registered successfully", response.getBody());
 
         Mockito.verify(userService).createUser(registerRequest);
@@ -43,9 +48,9 @@ class AuthControllerTest {
     void loginUser_success() {
         String token = "fake-jwt-token";
         Mockito.when(userService.loginUser(loginRequest))
-                .thenReturn(new AuthResponse(token));
+                .thenReturn(CompletableFuture.completedFuture(new AuthResponse(token)));
 
-        ResponseEntity<AuthResponse> response = authController.login(loginRequest);
+        ResponseEntity<AuthResponse> response = authController.login(loginRequest).join();
 
         assertEquals(token, response.getBody().token());
 
@@ -73,4 +78,15 @@ class AuthControllerTest {
 
         assertEquals("Invalid credentials", ex.getMessage());
     }
+
+    @Test
+    void loginUser_completesExceptionallyWhenPasswordDoesNotMatch() {
+        Mockito.when(userService.loginUser(loginRequest))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Invalid credentials")));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> authController.login(loginRequest).join());
+
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+    }
 }
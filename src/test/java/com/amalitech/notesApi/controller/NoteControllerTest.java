@@ -1,10 +1,22 @@
 package com.amalitech.notesApi.controller;
 
+import com.amalitech.notesApi.dto.request.NoteBatchRequest;
 import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NoteBatchResponse;
+import com.amalitech.notesApi.dto.response.NoteChangesResponse;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.dto.response.NoteSearchResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryPageResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryResponse;
 import com.amalitech.notesApi.exceptions.GlobalExceptionHandler;
 import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import com.amalitech.notesApi.exceptions.PreconditionFailedException;
 import com.amalitech.notesApi.models.Note;
 import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.service.IfMatch;
+import com.amalitech.notesApi.service.NoteBatchService;
+import com.amalitech.notesApi.service.NoteExportService;
 import com.amalitech.notesApi.service.NoteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,11 +30,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +49,12 @@ class NoteControllerTest {
     @Mock
     private NoteService noteService;
 
+    @Mock
+    private NoteExportService noteExportService;
+
+    @Mock
+    private NoteBatchService noteBatchService;
+
     @InjectMocks
     private NoteController noteController;
 
@@ -53,6 +74,7 @@ class NoteControllerTest {
     void shouldReturnHealthStatus() throws Exception {
         mockMvc.perform(get("/api/v1/notes/health"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
                 .andExpect(content().string("Notes API is running"));
     }
 
@@ -83,25 +105,132 @@ class NoteControllerTest {
     }
 
     @Test
-    void shouldGetAllNotes() throws Exception {
-        Note note = new Note();
-        User user = new User();
-        note.setId(1L);
-        note.setTitle("Test");
-        note.setContent("Content");
-        note.setUser(user);
+    void shouldApplyBatch() throws Exception {
+        Mockito.when(noteBatchService.apply(any(NoteBatchRequest.class)))
+                .thenReturn(new NoteBatchResponse(true, List.of(
+                        new NoteBatchResponse.Item(0, NoteBatchRequest.Action.DELETE, 4L, 204, null, null))));
+
+        mockMvc.perform(post("/api/v1/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"DELETE\",\"id\":4}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true))
+                .andExpect(jsonPath("$.results[0].status").value(204));
+    }
+
+    @Test
+    void shouldReturnUnprocessableContentWhenBatchRejected() throws Exception {
+        Mockito.when(noteBatchService.apply(any(NoteBatchRequest.class)))
+                .thenReturn(new NoteBatchResponse(false, List.of(
+                        new NoteBatchResponse.Item(0, NoteBatchRequest.Action.UPDATE, 9L, 404, null, "Note not found"))));
+
+        mockMvc.perform(post("/api/v1/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"UPDATE\",\"id\":9,\"title\":\"T\",\"content\":\"C\"}]}"))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.results[0].error").value("Note not found"));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/v1/notes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGetFirstPageOfNotes() throws Exception {
+        NoteResponse note = new NoteResponse(1L, "Test", "Content", null, null);
 
-        Mockito.when(noteService.getAllNotes())
-                .thenReturn(List.of(note));
+        Mockito.when(noteService.listNotes(null, null))
+                .thenReturn(new NotePageResponse(List.of(note), "next-cursor"));
 
         mockMvc.perform(get("/api/v1/notes"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.notes", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+    }
+
+    @Test
+    void shouldPassCursorAndSizeToService() throws Exception {
+        Mockito.when(noteService.listNotes("abc", 5))
+                .thenReturn(new NotePageResponse(List.of(new NoteResponse(2L, "Next", "Content", null, null)), null));
+
+        mockMvc.perform(get("/api/v1/notes").param("cursor", "abc").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldListNoteSummaries() throws Exception {
+        Mockito.when(noteService.listNoteSummaries(null, 10))
+                .thenReturn(new NoteSummaryPageResponse(
+                        List.of(new NoteSummaryResponse(4L, "Big", 2_000_000, "Chapter one", null, null)), "next"));
+
+        mockMvc.perform(get("/api/v1/notes/summary").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes[0].contentLength").value(2_000_000))
+                .andExpect(jsonPath("$.notes[0].preview").value("Chapter one"))
+                .andExpect(jsonPath("$.notes[0].content").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void shouldReturnNoContentWhenNoNotes() throws Exception {
+        Mockito.when(noteService.listNotes(null, null))
+                .thenReturn(new NotePageResponse(List.of(), null));
+
+        mockMvc.perform(get("/api/v1/notes"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Cache-Control", "no-store, private"));
+    }
+
+    @Test
+    void shouldStreamNotesAsNdjson() throws Exception {
+        Mockito.when(noteExportService.exportNotes(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        mockMvc.perform(get("/api/v1/notes/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"notes.ndjson\""))
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void shouldReturnChangesSinceWatermark() throws Exception {
+        Mockito.when(noteService.listChanges("token", null))
+                .thenReturn(new NoteChangesResponse(List.of(new NoteResponse(1L, "Edited", "Content", null, null)),
+                        List.of(7L), "next-token", false));
+
+        mockMvc.perform(get("/api/v1/notes/changes").param("since", "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated[0].id").value(1))
+                .andExpect(jsonPath("$.deleted[0]").value(7))
+                .andExpect(jsonPath("$.since").value("next-token"));
+    }
+
+    @Test
+    void shouldSearchNotes() throws Exception {
+        Mockito.when(noteService.searchNotes("milk", 1, 5))
+                .thenReturn(new NoteSearchResponse(List.of(new NoteResponse(3L, "Shopping", "Buy milk", null, null)), 1, 5, false));
+
+        mockMvc.perform(get("/api/v1/notes/search").param("q", "milk").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.notes[0].id").value(3))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
     }
 
     @Test
     void shouldGetNoteById() throws Exception {
-        Mockito.when(noteService.getNoteById(1L)).thenReturn(note1);
+        Mockito.when(noteService.getNoteById(1L)).thenReturn(NoteResponse.from(note1));
 
         mockMvc.perform(get("/api/v1/notes/1"))
                 .andExpect(status().isOk())
@@ -109,6 +238,99 @@ class NoteControllerTest {
                 .andExpect(jsonPath("$.content").value("Content of first note"));
     }
 
+    @Test
+    void shouldReturnETagWithNote() throws Exception {
+        Mockito.when(noteService.getNoteById(1L))
+                .thenReturn(new NoteResponse(1L, "First Note", "Content", null, null, 3L));
+
+        mockMvc.perform(get("/api/v1/notes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() throws Exception {
+        Mockito.when(noteService.getNoteById(1L))
+                .thenReturn(new NoteResponse(1L, "First Note", "Content", null, null, 3L));
+
+        mockMvc.perform(get("/api/v1/notes/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldAllowPrivateRevalidationOfNote() throws Exception {
+        Mockito.when(noteService.getNoteById(1L)).thenReturn(NoteResponse.from(note1));
+
+        mockMvc.perform(get("/api/v1/notes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().string("Vary", "Authorization, Accept-Encoding"));
+    }
+
+    @Test
+    void shouldNeverStoreListings() throws Exception {
+        Mockito.when(noteService.listNotes(null, null))
+                .thenReturn(new NotePageResponse(List.of(new NoteResponse(1L, "Test", "Content", null, null)), null));
+        Mockito.when(noteService.searchNotes("milk", null, null))
+                .thenReturn(new NoteSearchResponse(List.of(), 0, 20, false));
+
+        mockMvc.perform(get("/api/v1/notes"))
+                .andExpect(header().string("Cache-Control", "no-store, private"))
+                .andExpect(header().string("Vary", "Authorization, Accept-Encoding"));
+        mockMvc.perform(get("/api/v1/notes/search").param("q", "milk"))
+                .andExpect(header().string("Cache-Control", "no-store, private"));
+    }
+
+    @Test
+    void shouldPassIfMatchVersionToUpdate() throws Exception {
+        Mockito.when(noteService.updateNote(eq(1L), any(NoteRequest.class), eq(IfMatch.of(3L))))
+                .thenReturn(new NoteResponse(1L, "Title", "Content", null, null, 4L));
+
+        mockMvc.perform(put("/api/v1/notes/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new NoteRequest("Title", "Content"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void shouldReturnPreconditionFailedWhenVersionIsStale() throws Exception {
+        Mockito.doThrow(new PreconditionFailedException("Note is at version 4, not 3"))
+                .when(noteService).deleteNote(1L, IfMatch.of(3L));
+
+        mockMvc.perform(delete("/api/v1/notes/1").header("If-Match", "\"3\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.details").value("Note is at version 4, not 3"));
+    }
+
+    @Test
+    void shouldPassEveryListedIfMatchVersion() throws Exception {
+        mockMvc.perform(delete("/api/v1/notes/1").header("If-Match", "\"3\", W/\"4\""))
+                .andExpect(status().isOk());
+
+        Mockito.verify(noteService).deleteNote(1L, IfMatch.of(3L, 4L));
+    }
+
+    @Test
+    void shouldReturnPreconditionFailedForIfMatchAnyOnMissingNote() throws Exception {
+        Mockito.doThrow(new PreconditionFailedException("Note does not exist"))
+                .when(noteService).deleteNote(99L, IfMatch.ANY);
+
+        mockMvc.perform(delete("/api/v1/notes/99").header("If-Match", "*"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void shouldRejectMalformedIfMatch() throws Exception {
+        mockMvc.perform(delete("/api/v1/notes/1").header("If-Match", "three"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturnNotFoundWhenNoteDoesNotExist() throws Exception {
         Mockito.when(noteService.getNoteById(99L))
@@ -123,7 +345,7 @@ class NoteControllerTest {
     void shouldReturnNotFoundWhenUpdatingNonExistentNote() throws Exception {
         NoteRequest request = new NoteRequest("Title", "Content");
 
-        Mockito.when(noteService.updateNote(eq(999L), any(NoteRequest.class)))
+        Mockito.when(noteService.updateNote(eq(999L), any(NoteRequest.class), isNull()))
                 .thenThrow(new NoteNotFoundException("Note with id 999 not found"));
 
         mockMvc.perform(put("/api/v1/notes/999")
@@ -145,14 +367,11 @@ class NoteControllerTest {
 
     @Test
     void shouldUpdateNoteSuccessfully() throws Exception {
-        Note note = new Note();
-        note.setId(1L);
-        note.setTitle("Updated Title");
-        note.setContent("Updated Content");
+        NoteResponse note = new NoteResponse(1L, "Updated Title", "Updated Content", null, null);
 
         NoteRequest request = new NoteRequest("Updated Title", "Updated Content");
 
-        Mockito.when(noteService.updateNote(eq(1L), any(NoteRequest.class))).thenReturn(note);
+        Mockito.when(noteService.updateNote(eq(1L), any(NoteRequest.class), isNull())).thenReturn(note);
 
         mockMvc.perform(put("/api/v1/notes/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -165,7 +384,7 @@ class NoteControllerTest {
 
     @Test
     void shouldDeleteNoteSuccessfully() throws Exception {
-        Mockito.doNothing().when(noteService).deleteNote(1L);
+        Mockito.doNothing().when(noteService).deleteNote(1L, null);
 
         mockMvc.perform(delete("/api/v1/notes/1"))
                 .andExpect(status().isOk())
@@ -175,7 +394,7 @@ class NoteControllerTest {
     @Test
     void shouldReturnNotFoundWhenDeletingNonExistentNote() throws Exception {
         Mockito.doThrow(new NoteNotFoundException("Note with id 999 not found"))
-                .when(noteService).deleteNote(999L);
+                .when(noteService).deleteNote(999L, null);
 
         mockMvc.perform(delete("/api/v1/notes/999"))
                 .andExpect(status().isNotFound())
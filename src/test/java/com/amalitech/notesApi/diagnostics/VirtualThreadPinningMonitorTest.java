@@ -0,0 +1,62 @@
+package com.amalitech.notesApi.diagnostics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void shouldStartAndStopRecording() {
+        monitor.start();
+        assertTrue(monitor.isRunning());
+
+        monitor.stop();
+        assertFalse(monitor.isRunning());
+    }
+
+    @Test
+    void shouldCountVirtualThreadBlockedInsideSynchronized() throws Exception {
+        // Since JDK 24 (JEP 491) blocking inside synchronized no longer pins the carrier
+        assumeTrue(Runtime.version().feature() < 24);
+        monitor.start();
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(1.0, pinnedCount());
+        assertEquals(1L, meterRegistry.get("notes.virtual-threads.pinned.duration").timer().count());
+    }
+
+    private double pinnedCount() {
+        return meterRegistry.get("notes.virtual-threads.pinned").counter().count();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -188,6 +189,48 @@ class GlobalExceptionHandlerTest {
         assertThat(body.get("details")).isEqualTo("Access is denied");
     }
 
+    @Test
+    void shouldHandleTooManyRequestsWithRetryAfter() {
+        // Given
+        TooManyRequestsException exception = new TooManyRequestsException("Slow down", 3);
+
+        // When
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleTooManyRequests(exception, webRequest);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().get("status")).isEqualTo(429);
+        assertThat(response.getBody().get("details")).isEqualTo("Slow down");
+    }
+
+    @Test
+    void shouldUnwrapRejectionFromHashingPool() {
+        // Given
+        CompletionException exception = new CompletionException(new TooManyRequestsException("Slow down", 3));
+
+        // When
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleCompletion(exception, webRequest);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("3");
+    }
+
+    @Test
+    void shouldUnwrapInvalidCredentialsFromHashingPool() {
+        // Given
+        CompletionException exception = new CompletionException(new IllegalArgumentException("Invalid credentials"));
+
+        // When
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleCompletion(exception, webRequest);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().get("error")).isEqualTo("Invalid credentials");
+    }
+
     @Test
     void shouldHandleGenericException() {
         // Given
@@ -0,0 +1,269 @@
+package com.amalitech.notesApi.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load generator. Boots the application on H2, registers users through the auth API and
+ * drives a weighted mix of note operations from virtual-thread clients, then prints throughput and
+ * latency percentiles per operation.
+ *
+ * <p>Excluded from the normal build; run with {@code mvn -Pload-test test}. Tunable system properties:
+ * <ul>
+ *     <li>{@code load.users} - registered users, clients are spread across them (default 20)</li>
+ *     <li>{@code load.clients} - concurrent clients (default 200)</li>
+ *     <li>{@code load.warmup} / {@code load.duration} - seconds of warm-up and measurement (default 10 / 30)</li>
+ *     <li>{@code load.mix} - operation weights (default create=20,get=45,update=15,delete=5,list=15)</li>
+ *     <li>{@code load.max-error-rate} - fraction of failed requests tolerated (default 0.01)</li>
+ *     <li>{@code load.http2} - talk cleartext HTTP/2 (h2c) instead of HTTP/1.1 (default false)</li>
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        // Registration cost is not what this test measures
+        "security.password.bcrypt.cost=4",
+        // The limiter would otherwise cap each simulated user at its steady-state rate
+        "notes.rate-limit.enabled=false"
+})
+class NotesApiLoadTest {
+
+    private enum Operation {
+        CREATE, GET, UPDATE, DELETE, LIST
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int users = Integer.getInteger("load.users", 20);
+    private final int clients = Integer.getInteger("load.clients", 200);
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+    private final Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private final Map<Operation, Integer> mix = parseMix(
+            System.getProperty("load.mix", "create=20,get=45,update=15,delete=5,list=15"));
+    private final HttpClient.Version httpVersion = Boolean.getBoolean("load.http2")
+            ? HttpClient.Version.HTTP_2
+            : HttpClient.Version.HTTP_1_1;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder errors = new LongAdder();
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private HttpClient httpClient;
+    private volatile boolean recording;
+
+    @Test
+    void runLoad() throws Exception {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            httpClient = HttpClient.newBuilder()
+                    .version(httpVersion)
+                    .executor(executor)
+                    .build();
+
+            List<String> tokens = registerUsers();
+
+            long measureStart = System.nanoTime() + warmup.toNanos();
+            long deadline = measureStart + duration.toNanos();
+            for (int i = 0; i < clients; i++) {
+                String token = tokens.get(i % tokens.size());
+                executor.submit(() -> runClient(token, deadline));
+            }
+
+            Thread.sleep(warmup.toMillis());
+            latencies.values().forEach(Histogram::reset);
+            errors.reset();
+            recording = true;
+            Thread.sleep(duration.toMillis());
+            recording = false;
+        }
+
+        long total = report();
+        assertTrue(total > 0, "No requests completed");
+        double errorRate = (double) errors.sum() / (total + errors.sum());
+        assertTrue(errorRate <= maxErrorRate, "Error rate " + errorRate + " exceeds " + maxErrorRate);
+    }
+
+    // Sequential on purpose: registration and login are BCrypt-bound and would trip the hashing queue
+    private List<String> registerUsers() throws Exception {
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            String credentials = jsonMapper.writeValueAsString(Map.of(
+                    "email", "load-" + i + "@example.com",
+                    // AuthRequest validates the password with @Min, which only accepts numeric strings
+                    "password", "83921047561"));
+            HttpResponse<String> registered = send(post("/api/v1/auth/register", credentials));
+            assertEquals(200, registered.statusCode(), "Registration failed: " + registered.body());
+
+            HttpResponse<String> login = send(post("/api/v1/auth/login", credentials));
+            assertEquals(200, login.statusCode(), "Login failed: " + login.body());
+            tokens.add(jsonMapper.readTree(login.body()).get("token").asString());
+        }
+        return tokens;
+    }
+
+    private void runClient(String token, long deadline) {
+        List<Long> ownNotes = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random);
+            if (operation != Operation.CREATE && operation != Operation.LIST && ownNotes.isEmpty()) {
+                operation = Operation.CREATE;
+            }
+            Long noteId = ownNotes.isEmpty() ? null : ownNotes.get(random.nextInt(ownNotes.size()));
+
+            HttpRequest request = switch (operation) {
+                case CREATE -> authorized(post("/api/v1/notes", noteJson(random)), token);
+                case GET -> authorized(get("/api/v1/notes/" + noteId), token);
+                case UPDATE -> authorized(put("/api/v1/notes/" + noteId, noteJson(random)), token);
+                case DELETE -> authorized(delete("/api/v1/notes/" + noteId), token);
+                case LIST -> authorized(get("/api/v1/notes?size=20"), token);
+            };
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = send(request);
+                long elapsed = System.nanoTime() - start;
+                if (response.statusCode() >= 400) {
+                    recordError();
+                    continue;
+                }
+                if (recording) {
+                    latencies.get(operation).recordValue(Math.min(elapsed, HIGHEST_TRACKABLE_NANOS));
+                }
+                if (operation == Operation.CREATE) {
+                    ownNotes.add(jsonMapper.readTree(response.body()).get("id").asLong());
+                } else if (operation == Operation.DELETE) {
+                    ownNotes.remove(noteId);
+                }
+            } catch (Exception e) {
+                recordError();
+            }
+        }
+    }
+
+    private long report() {
+        double seconds = duration.toMillis() / 1000.0;
+        long total = 0;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nLoad test: %d users, %d clients over %s, %ds measured after %ds warm-up%n",
+                users, clients, httpVersion, duration.toSeconds(), warmup.toSeconds()));
+        out.append(String.format("%-8s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            total += histogram.getTotalCount();
+            out.append(String.format("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey().name().toLowerCase(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        out.append(String.format("total    %10d %10.1f req/s, %d errors%n", total, total / seconds, errors.sum()));
+        System.out.println(out);
+        return total;
+    }
+
+    private void recordError() {
+        if (recording) {
+            errors.increment();
+        }
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.LIST;
+    }
+
+    private String noteJson(ThreadLocalRandom random) {
+        return jsonMapper.writeValueAsString(Map.of(
+                "title", "Load note " + random.nextInt(1_000_000),
+                "content", "Generated content ".repeat(1 + random.nextInt(20))));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest post(String path, String body) {
+        return request(path).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest put(String path, String body) {
+        return request(path).PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static HttpRequest authorized(HttpRequest request, String token) {
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split("=");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+}
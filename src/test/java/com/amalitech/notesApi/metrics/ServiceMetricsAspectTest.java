@@ -0,0 +1,105 @@
+package com.amalitech.notesApi.metrics;
+
+import com.amalitech.notesApi.cache.CacheInvalidationBus;
+import com.amalitech.notesApi.cache.InMemoryCacheInvalidationTransport;
+import com.amalitech.notesApi.cache.NoteCache;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.exceptions.InvalidNoteException;
+import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import com.amalitech.notesApi.exceptions.TooManyRequestsException;
+import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.repository.NoteTombstoneRepository;
+import com.amalitech.notesApi.search.NoteSearchIndex;
+import com.amalitech.notesApi.security.AuthenticatedUserService;
+import com.amalitech.notesApi.service.NoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private NoteTombstoneRepository noteTombstoneRepository;
+
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NoteService noteService;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        NoteService target = new NoteService(noteRepository, noteTombstoneRepository, authenticatedUserService,
+                new NoteCache(new ConcurrentMapCacheManager(NoteCache.CACHE_NAME),
+                        new CacheInvalidationBus(new InMemoryCacheInvalidationTransport(), meterRegistry)),
+                noteSearchIndex);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        noteService = factory.getProxy();
+
+        lenient().when(authenticatedUserService.getCurrentUserId()).thenReturn(1L);
+    }
+
+    @Test
+    void shouldTimeSuccessfulCalls() {
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(new NoteResponse(1L, "Title", "Content", null, null)));
+
+        noteService.getNoteById(1L);
+
+        assertEquals(1, timerCount("getNoteById", "success"));
+    }
+
+    @Test
+    void shouldTagFailuresWithOutcome() {
+        when(noteRepository.findResponseByIdAndUserId(9L, 1L)).thenReturn(Optional.empty());
+        when(noteRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(NoteNotFoundException.class, () -> noteService.getNoteById(9L));
+
+        assertEquals(1, timerCount("getNoteById", "not-found"));
+    }
+
+    @Test
+    void shouldMapExceptionsToOutcomes() {
+        assertEquals("not-found", ServiceMetricsAspect.outcome(new NoteNotFoundException("missing")));
+        assertEquals("access-denied", ServiceMetricsAspect.outcome(new AccessDeniedException("denied")));
+        assertEquals("validation-error", ServiceMetricsAspect.outcome(new InvalidNoteException("bad")));
+        assertEquals("validation-error", ServiceMetricsAspect.outcome(
+                new CompletionException(new IllegalArgumentException("Invalid credentials"))));
+        assertEquals("rejected", ServiceMetricsAspect.outcome(new TooManyRequestsException("busy", 1)));
+        assertEquals("error", ServiceMetricsAspect.outcome(new IllegalStateException("boom")));
+    }
+
+    private long timerCount(String method, String outcome) {
+        return meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tag("class", "NoteService")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
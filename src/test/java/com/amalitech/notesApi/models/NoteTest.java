@@ -0,0 +1,40 @@
+package com.amalitech.notesApi.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteTest {
+
+    @Test
+    void shouldCollapseWhitespaceInPreview() {
+        assertThat(Note.previewOf("  First line\n\n\tsecond   line  ")).isEqualTo("First line second line");
+    }
+
+    @Test
+    void shouldCutPreviewToLimit() {
+        String preview = Note.previewOf("word ".repeat(1000));
+
+        assertThat(preview).hasSize(Note.PREVIEW_LENGTH - 1).doesNotEndWith(" ");
+    }
+
+    @Test
+    void shouldNotSplitSurrogatePairInPreview() {
+        String content = "a".repeat(Note.PREVIEW_LENGTH - 1) + "\uD83D\uDCDD";
+
+        assertThat(Note.previewOf(content)).isEqualTo("a".repeat(Note.PREVIEW_LENGTH - 1));
+    }
+
+    @Test
+    void shouldFillSummaryOnPersistAndUpdate() {
+        Note note = new Note(1L, "Title", "Body text");
+        note.onCreate();
+        assertThat(note.getContentLength()).isEqualTo(9);
+        assertThat(note.getContentPreview()).isEqualTo("Body text");
+
+        note.setContent("Changed");
+        note.onUpdate();
+        assertThat(note.getContentLength()).isEqualTo(7);
+        assertThat(note.getContentPreview()).isEqualTo("Changed");
+    }
+}
@@ -0,0 +1,105 @@
+package com.amalitech.notesApi.search;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryNoteSearchIndexTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private InMemoryNoteSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new InMemoryNoteSearchIndex(noteRepository);
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveContentMatches() {
+        add(1L, 1L, "Meeting notes", "Discussed the budget for groceries");
+        add(2L, 1L, "Groceries", "Milk, eggs and bread");
+        add(3L, 1L, "Holiday", "Book flights");
+
+        List<NoteSearchHit> hits = index.search(1L, "groceries", 0, 10);
+
+        assertEquals(List.of(2L, 1L), hits.stream().map(NoteSearchHit::noteId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void shouldOnlySearchTheOwnersNotes() {
+        add(1L, 1L, "Groceries", "Milk");
+        add(2L, 2L, "Groceries", "Milk");
+
+        assertEquals(List.of(2L), index.search(2L, "milk", 0, 10).stream().map(NoteSearchHit::noteId).toList());
+        assertTrue(index.search(3L, "milk", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldReflectUpdatesAndRemovals() {
+        add(1L, 1L, "Groceries", "Milk");
+        add(1L, 1L, "Groceries", "Coffee");
+
+        assertTrue(index.search(1L, "milk", 0, 10).isEmpty());
+        assertEquals(1, index.search(1L, "coffee", 0, 10).size());
+
+        index.remove(1L);
+
+        assertTrue(index.search(1L, "groceries", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldPageThroughHits() {
+        for (long id = 1; id <= 5; id++) {
+            add(id, 1L, "Note " + id, "shared term");
+        }
+
+        assertEquals(2, index.search(1L, "shared", 0, 2).size());
+        assertEquals(1, index.search(1L, "shared", 4, 2).size());
+        assertTrue(index.search(1L, "shared", 5, 2).isEmpty());
+    }
+
+    @Test
+    void shouldRebuildFromRepository() {
+        when(noteRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(note(7L, 1L, "Reading list", "Dune"))));
+
+        index.rebuild();
+
+        assertEquals(7L, index.search(1L, "DUNE", 0, 10).get(0).noteId());
+    }
+
+    @Test
+    void shouldTokenizeOnNonAlphanumericCharacters() {
+        assertEquals(List.of("buy", "milk", "2l"), InMemoryNoteSearchIndex.tokenize("Buy milk (2L) & a"));
+    }
+
+    private void add(Long id, Long userId, String title, String content) {
+        index.index(userId, new NoteResponse(id, title, content, null, null));
+    }
+
+    private Note note(Long id, Long userId, String title, String content) {
+        User user = new User();
+        user.setId(userId);
+        Note note = new Note(id, title, content);
+        note.setUser(user);
+        return note;
+    }
+}
@@ -0,0 +1,93 @@
+package com.amalitech.notesApi.security;
+
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    @InjectMocks
+    private AuthenticatedUserService authenticatedUserService;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldReadUserIdFromClaimsPrincipalWithoutQuery() {
+        // Given
+        authenticateAs(new AuthenticatedUser(5L, "user@example.com", 0));
+
+        // When
+        Long userId = authenticatedUserService.getCurrentUserId();
+
+        // Then
+        assertThat(userId).isEqualTo(5L);
+        verify(userRepository, never()).findByEmail(any());
+        verify(userIdentityCache, never()).find(any());
+    }
+
+    @Test
+    void shouldResolveOtherPrincipalsThroughIdentityCache() {
+        // Given
+        authenticateAs("user@example.com");
+        when(userIdentityCache.find("user@example.com")).thenReturn(new AuthenticatedUser(9L, "user@example.com", 0));
+
+        // When
+        Long userId = authenticatedUserService.getCurrentUserId();
+
+        // Then
+        assertThat(userId).isEqualTo(9L);
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void shouldThrowWhenAuthenticatedUserNoLongerExists() {
+        // Given
+        authenticateAs("gone@example.com");
+        when(userIdentityCache.find("gone@example.com")).thenReturn(null);
+
+        // When/Then
+        assertThatThrownBy(() -> authenticatedUserService.getCurrentUserId())
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void shouldReturnReferenceForCurrentUserId() {
+        // Given
+        User reference = new User();
+        authenticateAs(new AuthenticatedUser(5L, "user@example.com", 0));
+        when(userRepository.getReferenceById(5L)).thenReturn(reference);
+
+        // When/Then
+        assertThat(authenticatedUserService.getCurrentUserReference()).isSameAs(reference);
+    }
+
+    private void authenticateAs(Object principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -1,5 +1,7 @@
 package com.amalitech.notesApi.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,14 +9,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.IOException;
 import java.util.List;
@@ -30,7 +27,7 @@ class JwtFilterTest {
     private JwtUtil jwtUtil;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserIdentityCache userIdentityCache;
 
     @Mock
     private HttpServletRequest request;
@@ -41,10 +38,13 @@ class JwtFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @InjectMocks
+    @Mock
+    private Claims claims;
+
+    private SimpleMeterRegistry meterRegistry;
     private JwtFilter jwtFilter;
 
-    private UserDetails userDetails;
+    private AuthenticatedUser identity;
     private static final String VALID_TOKEN = "valid.jwt.token";
     private static final String INVALID_TOKEN = "invalid.jwt.token";
     private static final String USERNAME = "testuser@example.com";
@@ -52,12 +52,10 @@ class JwtFilterTest {
     @BeforeEach
     void setup() {
         SecurityContextHolder.clearContext();
+        meterRegistry = new SimpleMeterRegistry();
+        jwtFilter = new JwtFilter(jwtUtil, userIdentityCache, meterRegistry);
 
-        userDetails = User.builder()
-                .username(USERNAME)
-                .password("password")
-                .authorities(List.of(new SimpleGrantedAuthority("ROLE_USER")))
-                .build();
+        identity = new AuthenticatedUser(3L, USERNAME, 0);
     }
 
     @Test
@@ -70,7 +68,7 @@ class JwtFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).extractSubject(any());
+        verify(jwtUtil, never()).parseClaims(any());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
@@ -84,7 +82,7 @@ class JwtFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).extractSubject(any());
+        verify(jwtUtil, never()).parseClaims(any());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
@@ -92,58 +90,133 @@ class JwtFilterTest {
     void shouldContinueFilterChainWhenTokenExtractionFails() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + INVALID_TOKEN);
-        when(jwtUtil.extractSubject(INVALID_TOKEN)).thenThrow(new RuntimeException("Invalid token"));
+        when(jwtUtil.parseClaims(INVALID_TOKEN)).thenThrow(new RuntimeException("Invalid token"));
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(userDetailsService, never()).loadUserByUsername(any());
+        verify(userIdentityCache, never()).find(any());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(meterRegistry.get("notes.jwt.parse").tag("outcome", "invalid").timer().count()).isEqualTo(1);
     }
 
     @Test
     void shouldAuthenticateUserWhenValidTokenProvided() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
-        when(jwtUtil.extractSubject(VALID_TOKEN)).thenReturn(USERNAME);
-        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-        when(jwtUtil.isTokenValid(VALID_TOKEN, USERNAME)).thenReturn(true);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(userIdentityCache.find(USERNAME)).thenReturn(identity);
+        when(jwtUtil.isTokenValid(claims, USERNAME)).thenReturn(true);
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).extractSubject(VALID_TOKEN);
-        verify(userDetailsService).loadUserByUsername(USERNAME);
-        verify(jwtUtil).isTokenValid(VALID_TOKEN, USERNAME);
+        verify(jwtUtil, times(1)).parseClaims(VALID_TOKEN);
+        verify(jwtUtil, never()).extractSubject(any());
+        verify(userIdentityCache).find(USERNAME);
+        verify(jwtUtil).isTokenValid(claims, USERNAME);
+        assertThat(meterRegistry.get("notes.jwt.parse").tag("outcome", "valid").timer().count()).isEqualTo(1);
+
+        // The resolved id travels with the principal, so the rest of the request needs no lookup
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(identity);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo(USERNAME);
+    }
 
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUser() throws ServletException, IOException {
+        // Given
+        AuthenticatedUser principal = new AuthenticatedUser(7L, USERNAME, 0);
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(jwtUtil.extractAuthenticatedUser(claims)).thenReturn(principal);
+        when(userIdentityCache.findById(7L)).thenReturn(principal);
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verify(userIdentityCache, never()).find(any());
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
-        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
-                .hasSize(1)
-                .extracting("authority")
-                .contains("ROLE_USER");
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(principal);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo(USERNAME);
+    }
+
+    @Test
+    void shouldRejectTokenIssuedBeforeCredentialsChanged() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(jwtUtil.extractAuthenticatedUser(claims)).thenReturn(new AuthenticatedUser(7L, USERNAME, 0));
+        when(userIdentityCache.findById(7L)).thenReturn(new AuthenticatedUser(7L, USERNAME, 1));
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void shouldRejectTokenOfDeletedUser() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(jwtUtil.extractAuthenticatedUser(claims)).thenReturn(new AuthenticatedUser(7L, USERNAME, 0));
+        when(userIdentityCache.findById(7L)).thenReturn(null);
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void shouldRejectLegacyTokenAfterCredentialsChanged() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(userIdentityCache.find(USERNAME)).thenReturn(new AuthenticatedUser(3L, USERNAME, 1));
+        when(jwtUtil.isTokenValid(claims, USERNAME)).thenReturn(true);
+        when(jwtUtil.extractTokenVersion(claims)).thenReturn(0);
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
     @Test
     void shouldNotAuthenticateWhenTokenIsInvalid() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + INVALID_TOKEN);
-        when(jwtUtil.extractSubject(INVALID_TOKEN)).thenReturn(USERNAME);
-        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-        when(jwtUtil.isTokenValid(INVALID_TOKEN, USERNAME)).thenReturn(false);
+        when(jwtUtil.parseClaims(INVALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(userIdentityCache.find(USERNAME)).thenReturn(identity);
+        when(jwtUtil.isTokenValid(claims, USERNAME)).thenReturn(false);
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).extractSubject(INVALID_TOKEN);
-        verify(userDetailsService).loadUserByUsername(USERNAME);
-        verify(jwtUtil).isTokenValid(INVALID_TOKEN, USERNAME);
+        verify(jwtUtil).parseClaims(INVALID_TOKEN);
+        verify(userIdentityCache).find(USERNAME);
+        verify(jwtUtil).isTokenValid(claims, USERNAME);
 
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
@@ -152,16 +225,17 @@ class JwtFilterTest {
     void shouldNotAuthenticateWhenSubjectIsNull() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
-        when(jwtUtil.extractSubject(VALID_TOKEN)).thenReturn(null);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(null);
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).extractSubject(VALID_TOKEN);
-        verify(userDetailsService, never()).loadUserByUsername(any());
-        verify(jwtUtil, never()).isTokenValid(any(), any());
+        verify(jwtUtil).parseClaims(VALID_TOKEN);
+        verify(userIdentityCache, never()).find(any());
+        verify(jwtUtil, never()).isTokenValid(any(Claims.class), any());
 
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
@@ -171,21 +245,22 @@ class JwtFilterTest {
         // Given
         SecurityContextHolder.getContext().setAuthentication(
                 new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
+                        identity, null, List.of()
                 )
         );
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
-        when(jwtUtil.extractSubject(VALID_TOKEN)).thenReturn(USERNAME);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).extractSubject(VALID_TOKEN);
-        verify(userDetailsService, never()).loadUserByUsername(any());
-        verify(jwtUtil, never()).isTokenValid(any(), any());
+        verify(jwtUtil).parseClaims(VALID_TOKEN);
+        verify(userIdentityCache, never()).find(any());
+        verify(jwtUtil, never()).isTokenValid(any(Claims.class), any());
     }
 
     @Test
@@ -195,45 +270,45 @@ class JwtFilterTest {
         String expectedToken = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.test.signature";
 
         when(request.getHeader("Authorization")).thenReturn(fullToken);
-        when(jwtUtil.extractSubject(expectedToken)).thenReturn(USERNAME);
-        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-        when(jwtUtil.isTokenValid(expectedToken, USERNAME)).thenReturn(true);
+        when(jwtUtil.parseClaims(expectedToken)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(userIdentityCache.find(USERNAME)).thenReturn(identity);
+        when(jwtUtil.isTokenValid(claims, USERNAME)).thenReturn(true);
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtUtil).extractSubject(expectedToken);
-        verify(jwtUtil).isTokenValid(expectedToken, USERNAME);
+        verify(jwtUtil).parseClaims(expectedToken);
+        verify(jwtUtil).isTokenValid(claims, USERNAME);
     }
 
     @Test
-    void shouldHandleUserDetailsServiceException() throws ServletException, IOException {
+    void shouldNotAuthenticateUnknownUser() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
-        when(jwtUtil.extractSubject(VALID_TOKEN)).thenReturn(USERNAME);
-        when(userDetailsService.loadUserByUsername(USERNAME))
-                .thenThrow(new RuntimeException("User not found"));
-
-        // When/Then
-        try {
-            jwtFilter.doFilterInternal(request, response, filterChain);
-        } catch (RuntimeException e) {
-            assertThat(e.getMessage()).isEqualTo("User not found");
-        }
-
-        verify(jwtUtil).extractSubject(VALID_TOKEN);
-        verify(userDetailsService).loadUserByUsername(USERNAME);
-        verify(jwtUtil, never()).isTokenValid(any(), any());
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(userIdentityCache.find(USERNAME)).thenReturn(null);
+
+        // When
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verify(userIdentityCache).find(USERNAME);
+        verify(jwtUtil, never()).isTokenValid(any(Claims.class), any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
     @Test
     void shouldSetAuthenticationDetailsFromRequest() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
-        when(jwtUtil.extractSubject(VALID_TOKEN)).thenReturn(USERNAME);
-        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
-        when(jwtUtil.isTokenValid(VALID_TOKEN, USERNAME)).thenReturn(true);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(userIdentityCache.find(USERNAME)).thenReturn(identity);
+        when(jwtUtil.isTokenValid(claims, USERNAME)).thenReturn(true);
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
 
         // When
@@ -248,42 +323,33 @@ class JwtFilterTest {
     void shouldHandleEmptyBearerToken() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer ");
+        when(jwtUtil.parseClaims("")).thenThrow(new IllegalArgumentException("JWT String cannot be null or empty."));
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        // The filter will try to extract subject from empty string, which should fail
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
     @Test
-    void shouldPreserveUserAuthorities() throws ServletException, IOException {
+    void shouldResolveLegacyTokensThroughIdentityCacheOnly() throws ServletException, IOException {
         // Given
-        UserDetails userWithMultipleRoles = User.builder()
-                .username(USERNAME)
-                .password("password")
-                .authorities(
-                        List.of(
-                                new SimpleGrantedAuthority("ROLE_USER"),
-                                new SimpleGrantedAuthority("ROLE_ADMIN")
-                        )
-                )
-                .build();
-
         when(request.getHeader("Authorization")).thenReturn("Bearer " + VALID_TOKEN);
-        when(jwtUtil.extractSubject(VALID_TOKEN)).thenReturn(USERNAME);
-        when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userWithMultipleRoles);
-        when(jwtUtil.isTokenValid(VALID_TOKEN, USERNAME)).thenReturn(true);
+        when(jwtUtil.parseClaims(VALID_TOKEN)).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(USERNAME);
+        when(jwtUtil.extractAuthenticatedUser(claims)).thenReturn(null);
+        when(userIdentityCache.find(USERNAME)).thenReturn(identity);
+        when(jwtUtil.isTokenValid(claims, USERNAME)).thenReturn(true);
 
         // When
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
-                .hasSize(2)
-                .extracting("authority")
-                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        AuthenticatedUser principal = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        assertThat(principal.id()).isEqualTo(3L);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities()).isEmpty();
     }
 }
\ No newline at end of file
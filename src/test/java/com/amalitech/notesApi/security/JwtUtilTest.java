@@ -359,4 +359,98 @@ class JwtUtilTest {
         assertThat(isValidNow).isTrue();
         assertThat(isValidAfterWait).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldEmbedUserIdAndTokenVersionClaims() {
+        // Given
+        testUser.setId(42L);
+        testUser.setTokenVersion(3);
+        String token = jwtUtil.generateToken(testUser);
+
+        // When
+        AuthenticatedUser principal = jwtUtil.extractAuthenticatedUser(token);
+
+        // Then
+        assertThat(principal).isEqualTo(new AuthenticatedUser(42L, TEST_EMAIL, 3));
+        assertThat(principal.getName()).isEqualTo(TEST_EMAIL);
+    }
+
+    @Test
+    void shouldReturnNoAuthenticatedUserForTokenWithoutUserIdClaim() {
+        // Given - testUser has no id, as with tokens issued before the claim existed
+        String token = jwtUtil.generateToken(testUser);
+
+        // When/Then
+        assertThat(jwtUtil.extractAuthenticatedUser(token)).isNull();
+    }
+
+    @Test
+    void shouldTreatTokenWithoutVersionClaimAsVersionZero() {
+        // Given
+        String token = Jwts.builder()
+                .subject(TEST_EMAIL)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // When/Then
+        assertThat(jwtUtil.extractTokenVersion(jwtUtil.parseClaims(token))).isZero();
+    }
+
+    @Test
+    void shouldParseClaimsOnceAndReuseThemForValidation() {
+        // Given
+        testUser.setId(42L);
+        String token = jwtUtil.generateToken(testUser);
+
+        // When
+        Claims claims = jwtUtil.parseClaims(token);
+
+        // Then
+        assertThat(claims.getSubject()).isEqualTo(TEST_EMAIL);
+        assertThat(jwtUtil.isTokenValid(claims, TEST_EMAIL)).isTrue();
+        assertThat(jwtUtil.extractAuthenticatedUser(claims).id()).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldServeRepeatedParsesFromCacheWhenEnabled() {
+        // Given
+        JwtUtil cachingJwtUtil = new JwtUtil(SECRET_KEY, EXPIRATION_MS, ISSUER, true, 100);
+        String token = cachingJwtUtil.generateToken(testUser);
+
+        // When
+        Claims first = cachingJwtUtil.parseClaims(token);
+        Claims second = cachingJwtUtil.parseClaims(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldNotServeTamperedTokenFromCache() {
+        // Given
+        JwtUtil cachingJwtUtil = new JwtUtil(SECRET_KEY, EXPIRATION_MS, ISSUER, true, 100);
+        String token = cachingJwtUtil.generateToken(testUser);
+        cachingJwtUtil.parseClaims(token);
+        String tamperedToken = token.substring(0, token.length() - 5) + "XXXXX";
+
+        // When/Then
+        assertThatThrownBy(() -> cachingJwtUtil.parseClaims(tamperedToken))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void shouldRejectExpiredTokenEvenAfterCaching() throws InterruptedException {
+        // Given
+        JwtUtil cachingJwtUtil = new JwtUtil(SECRET_KEY, 1000, ISSUER, true, 100);
+        String token = cachingJwtUtil.generateToken(testUser);
+        cachingJwtUtil.parseClaims(token);
+
+        // When
+        Thread.sleep(1100);
+
+        // Then
+        assertThatThrownBy(() -> cachingJwtUtil.parseClaims(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.amalitech.notesApi.security;
+
+import com.amalitech.notesApi.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(executor, 5);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldHashAndVerifyOnExecutor() {
+        // When
+        String hash = passwordHasher.hash("password123").join();
+
+        // Then
+        assertThat(passwordHasher.verify("password123", hash).join()).isTrue();
+        assertThat(passwordHasher.verify("wrong-password", hash).join()).isFalse();
+    }
+
+    @Test
+    void shouldHashWithConfiguredCost() {
+        // When
+        String hash = passwordHasher.hash("password123").join();
+
+        // Then
+        assertThat(PasswordUtils.getCost(hash)).isEqualTo(5);
+        assertThat(passwordHasher.needsRehash(hash)).isFalse();
+    }
+
+    @Test
+    void shouldRequireRehashForHashesBelowCurrentCost() {
+        // Given
+        String weakHash = PasswordUtils.hashPassword("password123", 4);
+
+        // When/Then
+        assertThat(passwordHasher.needsRehash(weakHash)).isTrue();
+    }
+
+    @Test
+    void shouldRejectOutOfRangeCost() {
+        assertThatThrownBy(() -> new PasswordHasher(executor, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PasswordHasher(executor, 31))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldAcceptCostAtUpperLimit() {
+        assertThat(new PasswordHasher(executor, PasswordUtils.MAX_COST).getCost()).isEqualTo(30);
+        // The library must accept the same limit, or hashing would fail at runtime instead of at startup
+        assertThat(BCrypt.gensalt(PasswordUtils.MAX_COST)).startsWith("$2a$30$");
+        assertThatThrownBy(() -> BCrypt.gensalt(PasswordUtils.MAX_COST + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReadCostFromHash() {
+        assertThat(PasswordUtils.getCost("$2a$12$abcdefghijklmnopqrstuv")).isEqualTo(12);
+        assertThat(PasswordUtils.getCost("not-a-bcrypt-hash")).isEqualTo(-1);
+        assertThat(PasswordUtils.getCost(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldCalibrateWithinBounds() {
+        // A tiny target cannot push the cost below the floor
+        assertThat(PasswordUtils.calibrateCost(0, 6)).isEqualTo(6);
+        // An enormous target is capped so startup stays bounded
+        assertThat(PasswordUtils.calibrateCost(Long.MAX_VALUE / 2, 4)).isEqualTo(PasswordUtils.MAX_CALIBRATED_COST);
+    }
+
+    @Test
+    void shouldRejectWithTooManyRequestsWhenPoolIsSaturated() throws InterruptedException {
+        // Given - one task running and one queued fill the pool
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        // When/Then
+        assertThatThrownBy(() -> passwordHasher.hash("password123"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(PasswordHasher.RETRY_AFTER_SECONDS);
+
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.amalitech.notesApi.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(new RateLimitProperties(true, Duration.ofMinutes(10), List.of(
+                new RateLimitProperties.Route("auth", "/api/v1/auth/**", RateLimitProperties.KeyType.IP, 2, 1, Duration.ofMinutes(1)),
+                new RateLimitProperties.Route("notes", "/api/v1/notes/**", RateLimitProperties.KeyType.USER, 1, 1, Duration.ofMinutes(1))
+        )), meterRegistry, JsonMapper.builder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldRejectLoginBurstFromSameIpWithRetryAfter() throws Exception {
+        // Given: the auth route allows a burst of two per IP
+        assertThat(perform("/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        // When: a third attempt arrives from the same address
+        MockHttpServletResponse response = perform("/api/v1/auth/login", "10.0.0.1");
+
+        // Then: it is rejected before reaching the controller
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(response.getContentAsString()).contains("Too Many Requests");
+        assertThat(meterRegistry.get("notes.rate-limit.rejected").tag("route", "auth").counter().count()).isEqualTo(1.0);
+
+        // And: other addresses keep their own budget
+        assertThat(perform("/api/v1/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldLimitNoteRoutesPerUserRatherThanPerIp() throws Exception {
+        // Given: two users behind the same address
+        authenticateAs(1L);
+        assertThat(perform("/api/v1/notes", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        // When: the first user exceeds their budget
+        // Then: only that user is throttled
+        assertThat(perform("/api/v1/notes/5", "10.0.0.1").getStatus()).isEqualTo(429);
+
+        authenticateAs(2L);
+        assertThat(perform("/api/v1/notes", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotLimitUnmatchedRoutes() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("/actuator/health", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void shouldPassEverythingThroughWhenDisabled() throws Exception {
+        filter = new RateLimitFilter(new RateLimitProperties(false, Duration.ofMinutes(10), List.of(
+                new RateLimitProperties.Route("auth", "/api/v1/auth/**", RateLimitProperties.KeyType.IP, 1, 1, Duration.ofMinutes(1))
+        )), meterRegistry, JsonMapper.builder().build());
+
+        assertThat(perform("/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(perform("/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse perform(String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void authenticateAs(Long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user" + userId + "@example.com", 0);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
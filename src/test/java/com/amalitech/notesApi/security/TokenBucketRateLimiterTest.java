@@ -0,0 +1,107 @@
+package com.amalitech.notesApi.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void shouldAllowBurstUpToCapacity() {
+        TokenBucketRateLimiter limiter = limiter(3, 1, Duration.ofSeconds(1));
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        TokenBucketRateLimiter limiter = limiter(2, 1, Duration.ofSeconds(1));
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        clock.addAndGet(Duration.ofMillis(400).toNanos());
+        assertThat(limiter.tryAcquire("a")).isEqualTo(Duration.ofMillis(600).toNanos());
+
+        clock.addAndGet(Duration.ofMillis(600).toNanos());
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerKey() {
+        TokenBucketRateLimiter limiter = limiter(1, 1, Duration.ofMinutes(1));
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void shouldEvictIdleBuckets() {
+        TokenBucketRateLimiter limiter = limiter(1, 1, Duration.ofSeconds(1));
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+        assertThat(limiter.size()).isEqualTo(100);
+
+        // Past every stripe's staggered sweep time; each key touches its own stripe again
+        clock.addAndGet(Duration.ofMinutes(30).toNanos());
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("other-" + i);
+        }
+
+        assertThat(limiter.size()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldNotOverAdmitUnderContention() throws InterruptedException {
+        TokenBucketRateLimiter limiter = limiter(50, 1, Duration.ofHours(1));
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (limiter.tryAcquire("shared") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(admitted.get()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> limiter(0, 1, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TokenBucketRateLimiter limiter(int capacity, int refillTokens, Duration refillPeriod) {
+        return new TokenBucketRateLimiter(capacity, refillTokens, refillPeriod, Duration.ofMinutes(10), clock::get);
+    }
+}
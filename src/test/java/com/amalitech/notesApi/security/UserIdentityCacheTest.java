@@ -0,0 +1,146 @@
+package com.amalitech.notesApi.security;
+
+import com.amalitech.notesApi.cache.CacheInvalidationBus;
+import com.amalitech.notesApi.cache.InMemoryCacheInvalidationTransport;
+import com.amalitech.notesApi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityCacheTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private InMemoryCacheInvalidationTransport transport;
+    private UserIdentityCache userIdentityCache;
+
+    @BeforeEach
+    void setup() {
+        transport = new InMemoryCacheInvalidationTransport();
+        userIdentityCache = newNode();
+    }
+
+    @Test
+    void shouldLoadIdentityOnceAndServeRepeatLookupsFromCache() {
+        // Given
+        AuthenticatedUser identity = new AuthenticatedUser(4L, EMAIL, 2);
+        when(userRepository.findIdentityByEmail(EMAIL)).thenReturn(Optional.of(identity));
+
+        // When
+        AuthenticatedUser first = userIdentityCache.find(EMAIL);
+        AuthenticatedUser second = userIdentityCache.find(EMAIL);
+
+        // Then
+        assertThat(first).isEqualTo(identity);
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findIdentityByEmail(EMAIL);
+    }
+
+    @Test
+    void shouldNotCacheUnknownEmails() {
+        // Given
+        when(userRepository.findIdentityByEmail(EMAIL))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 0)));
+
+        // When
+        AuthenticatedUser beforeRegistration = userIdentityCache.find(EMAIL);
+        AuthenticatedUser afterRegistration = userIdentityCache.find(EMAIL);
+
+        // Then
+        assertThat(beforeRegistration).isNull();
+        assertThat(afterRegistration.id()).isEqualTo(4L);
+        verify(userRepository, times(2)).findIdentityByEmail(EMAIL);
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        // Given
+        when(userRepository.findIdentityByEmail(EMAIL))
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 0)))
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 1)));
+        userIdentityCache.find(EMAIL);
+
+        // When
+        userIdentityCache.invalidate(4L, EMAIL);
+        AuthenticatedUser reloaded = userIdentityCache.find(EMAIL);
+
+        // Then
+        assertThat(reloaded.tokenVersion()).isEqualTo(1);
+        verify(userRepository, times(2)).findIdentityByEmail(EMAIL);
+    }
+
+    @Test
+    void shouldEvictIdentityOnOtherNodesWhenInvalidated() {
+        // Given
+        UserIdentityCache otherNode = newNode();
+        when(userRepository.findIdentityByEmail(EMAIL))
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 0)))
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 1)));
+        otherNode.find(EMAIL);
+
+        // When
+        userIdentityCache.invalidate(4L, EMAIL);
+
+        // Then
+        assertThat(otherNode.find(EMAIL).tokenVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCacheIdentityByIdIncludingDeletedUsers() {
+        // Given
+        when(userRepository.findIdentityById(4L)).thenReturn(Optional.empty());
+
+        // When
+        AuthenticatedUser first = userIdentityCache.findById(4L);
+        AuthenticatedUser second = userIdentityCache.findById(4L);
+
+        // Then
+        assertThat(first).isNull();
+        assertThat(second).isNull();
+        verify(userRepository, times(1)).findIdentityById(4L);
+    }
+
+    @Test
+    void shouldEvictIdKeyedEntryOnOtherNodesWhenInvalidated() {
+        // Given
+        UserIdentityCache otherNode = newNode();
+        when(userRepository.findIdentityById(4L))
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 0)))
+                .thenReturn(Optional.of(new AuthenticatedUser(4L, EMAIL, 1)));
+        otherNode.findById(4L);
+
+        // When
+        userIdentityCache.invalidate(4L, EMAIL);
+
+        // Then
+        assertThat(otherNode.findById(4L).tokenVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIgnoreNullEmail() {
+        // When/Then
+        assertThat(userIdentityCache.find(null)).isNull();
+        assertThat(userIdentityCache.findById(null)).isNull();
+        userIdentityCache.invalidate(null, null);
+        verifyNoInteractions(userRepository);
+    }
+
+    private UserIdentityCache newNode() {
+        return new UserIdentityCache(userRepository, 100, Duration.ofMinutes(10),
+                new CacheInvalidationBus(transport, new SimpleMeterRegistry()));
+    }
+}
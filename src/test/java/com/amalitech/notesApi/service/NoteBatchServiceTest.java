@@ -0,0 +1,129 @@
+package com.amalitech.notesApi.service;
+
+import com.amalitech.notesApi.cache.NoteCache;
+import com.amalitech.notesApi.dto.request.NoteBatchRequest;
+import com.amalitech.notesApi.dto.request.NoteBatchRequest.Action;
+import com.amalitech.notesApi.dto.request.NoteBatchRequest.Operation;
+import com.amalitech.notesApi.dto.response.NoteBatchResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.models.NoteTombstone;
+import com.amalitech.notesApi.models.User;
+import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.repository.NoteTombstoneRepository;
+import com.amalitech.notesApi.search.NoteSearchIndex;
+import com.amalitech.notesApi.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteBatchServiceTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private NoteTombstoneRepository noteTombstoneRepository;
+
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    @Mock
+    private NoteCache noteCache;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    @InjectMocks
+    private NoteBatchService noteBatchService;
+
+    private User owner;
+
+    @BeforeEach
+    void setup() {
+        owner = new User();
+        owner.setId(1L);
+        lenient().when(authenticatedUserService.getCurrentUserId()).thenReturn(1L);
+        lenient().when(authenticatedUserService.getCurrentUserReference()).thenReturn(owner);
+    }
+
+    @Test
+    void shouldApplyAllOperationsInOneFlush() {
+        Note toUpdate = ownedNote(10L, owner);
+        Note toDelete = ownedNote(11L, owner);
+        when(noteRepository.findAllById(Set.of(10L, 11L))).thenReturn(List.of(toUpdate, toDelete));
+        when(noteRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Note> notes = invocation.getArgument(0);
+            notes.stream().filter(note -> note.getId() == null).forEach(note -> note.setId(12L));
+            return notes;
+        });
+
+        NoteBatchResponse response = noteBatchService.apply(new NoteBatchRequest(List.of(
+                new Operation(Action.CREATE, null, "New", "Created offline"),
+                new Operation(Action.UPDATE, 10L, "Edited", "Edited offline"),
+                new Operation(Action.DELETE, 11L, null, null))));
+
+        assertTrue(response.applied());
+        assertEquals(List.of(201, 200, 204), response.results().stream().map(NoteBatchResponse.Item::status).toList());
+        assertEquals(12L, response.results().get(0).id());
+        assertEquals("Edited", toUpdate.getTitle());
+        verify(noteRepository).deleteAll(List.of(toDelete));
+        verify(noteTombstoneRepository).saveAll(argThat((Iterable<NoteTombstone> tombstones) ->
+                tombstones.iterator().next().getNoteId().equals(11L)));
+        verify(noteRepository, times(1)).flush();
+        verify(noteCache).evict(1L, 11L);
+        verify(noteSearchIndex).remove(11L);
+        verify(noteSearchIndex, times(2)).index(eq(1L), any(NoteResponse.class));
+    }
+
+    @Test
+    void shouldRejectWholeBatchWhenAnyOperationIsInvalid() {
+        User someoneElse = new User();
+        someoneElse.setId(2L);
+        when(noteRepository.findAllById(Set.of(20L, 21L))).thenReturn(List.of(ownedNote(21L, someoneElse)));
+
+        NoteBatchResponse response = noteBatchService.apply(new NoteBatchRequest(List.of(
+                new Operation(Action.CREATE, null, "Valid", "Content"),
+                new Operation(Action.CREATE, null, " ", "Content"),
+                new Operation(Action.UPDATE, 20L, "Missing", "Content"),
+                new Operation(Action.DELETE, 21L, null, null))));
+
+        assertFalse(response.applied());
+        assertEquals(List.of(424, 400, 404, 403), response.results().stream().map(NoteBatchResponse.Item::status).toList());
+        assertEquals("Title cannot be empty", response.results().get(1).error());
+        verify(noteRepository, never()).saveAll(anyList());
+        verify(noteRepository, never()).flush();
+        verifyNoInteractions(noteCache, noteSearchIndex);
+    }
+
+    @Test
+    void shouldRejectRepeatedNoteIds() {
+        when(noteRepository.findAllById(Set.of(30L))).thenReturn(List.of(ownedNote(30L, owner)));
+
+        NoteBatchResponse response = noteBatchService.apply(new NoteBatchRequest(List.of(
+                new Operation(Action.UPDATE, 30L, "Title", "Content"),
+                new Operation(Action.DELETE, 30L, null, null))));
+
+        assertFalse(response.applied());
+        assertEquals("Note appears more than once in the batch", response.results().get(1).error());
+    }
+
+    private Note ownedNote(Long id, User user) {
+        Note note = new Note(id, "Title " + id, "Content " + id);
+        note.setUser(user);
+        return note;
+    }
+}
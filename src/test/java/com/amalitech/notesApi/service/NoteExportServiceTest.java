@@ -0,0 +1,66 @@
+package com.amalitech.notesApi.service;
+
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.security.AuthenticatedUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteExportServiceTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private AuthenticatedUserService authenticatedUserService;
+
+    private NoteExportService noteExportService;
+
+    @BeforeEach
+    void setup() {
+        noteExportService = new NoteExportService(noteRepository, authenticatedUserService,
+                JsonMapper.builder().build());
+
+        when(authenticatedUserService.getCurrentUserId()).thenReturn(1L);
+    }
+
+    @Test
+    void shouldWriteOneJsonLinePerNote() throws Exception {
+        NoteResponse first = new NoteResponse(1L, "First", "Content one", null, null);
+        NoteResponse second = new NoteResponse(2L, "Second", "Content two", null, null);
+        when(noteRepository.streamByUserId(1L)).thenReturn(Stream.of(first, second));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = noteExportService.exportNotes(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"First\""));
+        assertTrue(lines[1].contains("\"title\":\"Second\""));
+    }
+
+    @Test
+    void shouldCloseCursorWhenExportCompletes() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(noteRepository.streamByUserId(1L)).thenReturn(Stream.<NoteResponse>empty().onClose(() -> closed.set(true)));
+
+        long written = noteExportService.exportNotes(new ByteArrayOutputStream());
+
+        assertEquals(0, written);
+        assertTrue(closed.get());
+    }
+}
@@ -1,19 +1,43 @@
 package com.amalitech.notesApi.service;
 
+import com.amalitech.notesApi.cache.CacheInvalidationBus;
+import com.amalitech.notesApi.cache.InMemoryCacheInvalidationTransport;
+import com.amalitech.notesApi.cache.NoteCache;
 import com.amalitech.notesApi.dto.request.NoteRequest;
+import com.amalitech.notesApi.dto.response.NoteChangesResponse;
+import com.amalitech.notesApi.dto.response.NotePageResponse;
+import com.amalitech.notesApi.dto.response.NoteResponse;
+import com.amalitech.notesApi.dto.response.NoteSearchResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryPageResponse;
+import com.amalitech.notesApi.dto.response.NoteSummaryResponse;
 import com.amalitech.notesApi.exceptions.InvalidNoteException;
 import com.amalitech.notesApi.exceptions.NoteNotFoundException;
+import com.amalitech.notesApi.exceptions.PreconditionFailedException;
 import com.amalitech.notesApi.models.Note;
+import com.amalitech.notesApi.models.NoteTombstone;
 import com.amalitech.notesApi.models.User;
 import com.amalitech.notesApi.repository.NoteRepository;
+import com.amalitech.notesApi.repository.NoteTombstoneRepository;
+import com.amalitech.notesApi.search.NoteSearchHit;
+import com.amalitech.notesApi.search.NoteSearchIndex;
 import com.amalitech.notesApi.security.AuthenticatedUserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +52,16 @@ public class NoteServiceTest {
     @Mock
     private AuthenticatedUserService authenticatedUserService;
 
+    @Mock
+    private NoteTombstoneRepository noteTombstoneRepository;
+
+    @Mock
+    private NoteSearchIndex noteSearchIndex;
+
+    @Spy
+    private NoteCache noteCache = new NoteCache(new ConcurrentMapCacheManager(NoteCache.CACHE_NAME),
+            new CacheInvalidationBus(new InMemoryCacheInvalidationTransport(), new SimpleMeterRegistry()));
+
     @InjectMocks
     private NoteService noteService;
 
@@ -39,7 +73,8 @@ public class NoteServiceTest {
         mockUser.setId(1L);
         mockUser.setEmail("user@example.com");
 
-        lenient().when(authenticatedUserService.getCurrentUser()).thenReturn(mockUser);
+        lenient().when(authenticatedUserService.getCurrentUserId()).thenReturn(1L);
+        lenient().when(authenticatedUserService.getCurrentUserReference()).thenReturn(mockUser);
     }
 
 
@@ -60,6 +95,7 @@ public class NoteServiceTest {
         assertEquals("Test Note", result.getTitle());
         assertEquals(mockUser, result.getUser());
         verify(noteRepository, times(1)).save(any(Note.class));
+        verify(noteSearchIndex).index(eq(1L), any(NoteResponse.class));
     }
 
     @Test
@@ -74,20 +110,86 @@ public class NoteServiceTest {
 
     @Test
     void shouldGetNoteByIdSuccessfully() {
-        Note note = new Note(1L, "First Note", "Content");
-        note.setUser(mockUser);
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(responseAt(1L, null)));
 
-        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
-
-        Note result = noteService.getNoteById(1L);
+        NoteResponse result = noteService.getNoteById(1L);
 
         assertNotNull(result);
-        assertEquals("First Note", result.getTitle());
+        assertEquals("Note 1", result.title());
+        verify(noteRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldServeRepeatedGetFromCache() {
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(responseAt(1L, null)));
+
+        noteService.getNoteById(1L);
+        NoteResponse cached = noteService.getNoteById(1L);
+
+        assertEquals("Note 1", cached.title());
+        verify(noteRepository, times(1)).findResponseByIdAndUserId(1L, 1L);
+    }
+
+    @Test
+    void shouldNotServeCachedNoteToAnotherUser() {
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
+        when(noteRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () -> noteService.getNoteById(1L));
+    }
+
+    @Test
+    void shouldRefreshCacheOnUpdateAndEvictOnDelete() {
+        NoteResponse before = new NoteResponse(1L, "Old Title", "Old Content", null, null);
+        NoteResponse after = new NoteResponse(1L, "New Title", "New Content", null, null);
+
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(before), Optional.of(after));
+        when(noteRepository.updateByIdAndUserId(eq(1L), eq(1L), eq("New Title"), eq("New Content"), any()))
+                .thenReturn(1);
+        when(noteRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
+
+        noteService.getNoteById(1L);
+        noteService.updateNote(1L, new NoteRequest("New Title", "New Content"));
+
+        assertEquals("New Title", noteService.getNoteById(1L).title());
+        verify(noteRepository, times(2)).findResponseByIdAndUserId(1L, 1L);
+        verify(noteSearchIndex).index(1L, after);
+
+        noteService.deleteNote(1L);
+        verify(noteCache).evict(1L, 1L);
+        verify(noteSearchIndex).remove(1L);
+    }
+
+    @Test
+    void shouldUpdateCacheAndSearchIndexOnlyAfterCommit() {
+        NoteResponse before = new NoteResponse(1L, "Old Title", "Old Content", null, null);
+        NoteResponse after = new NoteResponse(1L, "New Title", "New Content", null, null);
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L)).thenReturn(Optional.of(before), Optional.of(after));
+        when(noteRepository.updateByIdAndUserId(eq(1L), eq(1L), eq("New Title"), eq("New Content"), any()))
+                .thenReturn(1);
+        noteService.getNoteById(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            noteService.updateNote(1L, new NoteRequest("New Title", "New Content"));
+
+            // Until the transaction commits, readers keep the committed note and the index is untouched
+            assertEquals("Old Title", noteService.getNoteById(1L).title());
+            verifyNoInteractions(noteSearchIndex);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("New Title", noteService.getNoteById(1L).title());
+        verify(noteSearchIndex).index(1L, after);
     }
 
     @Test
     void shouldThrowNoteNotFoundExceptionWhenIdDoesNotExist() {
-        when(noteRepository.findById(99L)).thenReturn(Optional.empty());
+        when(noteRepository.findResponseByIdAndUserId(99L, 1L)).thenReturn(Optional.empty());
+        when(noteRepository.existsById(99L)).thenReturn(false);
 
         NoteNotFoundException ex = assertThrows(NoteNotFoundException.class,
                 () -> noteService.getNoteById(99L));
@@ -97,25 +199,26 @@ public class NoteServiceTest {
 
     @Test
     void shouldUpdateNoteSuccessfully() {
-        Note existingNote = new Note(1L, "Old Title", "Old Content");
-        existingNote.setUser(mockUser);
-
         NoteRequest request = new NoteRequest("Updated Title", "Updated Content");
 
-        when(noteRepository.findById(1L)).thenReturn(Optional.of(existingNote));
-        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(noteRepository.updateByIdAndUserId(eq(1L), eq(1L), eq("Updated Title"), eq("Updated Content"), any()))
+                .thenReturn(1);
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(new NoteResponse(1L, "Updated Title", "Updated Content", null, null)));
 
-        Note result = noteService.updateNote(1L, request);
+        NoteResponse result = noteService.updateNote(1L, request);
 
-        assertEquals("Updated Title", result.getTitle());
-        assertEquals("Updated Content", result.getContent());
-        verify(noteRepository, times(1)).save(existingNote);
+        assertEquals("Updated Title", result.title());
+        assertEquals("Updated Content", result.content());
+        verify(noteRepository, never()).findById(any());
+        verify(noteRepository, never()).save(any(Note.class));
     }
 
     @Test
     void shouldThrowNoteNotFoundExceptionWhenUpdatingNonExistentNote() {
         NoteRequest request = new NoteRequest("Title", "Content");
-        when(noteRepository.findById(999L)).thenReturn(Optional.empty());
+        when(noteRepository.updateByIdAndUserId(eq(999L), eq(1L), any(), any(), any())).thenReturn(0);
+        when(noteRepository.existsById(999L)).thenReturn(false);
 
         NoteNotFoundException ex = assertThrows(NoteNotFoundException.class,
                 () -> noteService.updateNote(999L, request));
@@ -123,23 +226,282 @@ public class NoteServiceTest {
         assertEquals("Note not found", ex.getMessage());
     }
 
+    @Test
+    void shouldDenyUpdatingAnotherUsersNote() {
+        NoteRequest request = new NoteRequest("Title", "Content");
+        when(noteRepository.updateByIdAndUserId(eq(5L), eq(1L), any(), any(), any())).thenReturn(0);
+        when(noteRepository.existsById(5L)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () -> noteService.updateNote(5L, request));
+        verifyNoInteractions(noteCache, noteSearchIndex);
+    }
+
+    @Test
+    void shouldUpdateOnlyExpectedVersion() {
+        NoteRequest request = new NoteRequest("Title", "Content");
+        when(noteRepository.updateByIdAndUserIdAndVersionIn(eq(1L), eq(1L), eq(List.of(3L)), eq("Title"), eq("Content"), any()))
+                .thenReturn(1);
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(new NoteResponse(1L, "Title", "Content", null, null, 4L)));
+
+        NoteResponse result = noteService.updateNote(1L, request, IfMatch.of(3L));
+
+        assertEquals(4L, result.version());
+        verify(noteRepository, never()).updateByIdAndUserId(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldFailPreconditionWhenUpdatingStaleVersion() {
+        NoteRequest request = new NoteRequest("Title", "Content");
+        when(noteRepository.updateByIdAndUserIdAndVersionIn(eq(1L), eq(1L), eq(List.of(3L)), any(), any(), any())).thenReturn(0);
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(new NoteResponse(1L, "Other", "Edit", null, null, 5L)));
+
+        PreconditionFailedException ex = assertThrows(PreconditionFailedException.class,
+                () -> noteService.updateNote(1L, request, IfMatch.of(3L)));
+
+        assertEquals("Note is at version 5, not 3", ex.getMessage());
+        verifyNoInteractions(noteCache, noteSearchIndex);
+    }
+
+    @Test
+    void shouldUpdateAnyOfTheListedVersions() {
+        NoteRequest request = new NoteRequest("Title", "Content");
+        when(noteRepository.updateByIdAndUserIdAndVersionIn(eq(1L), eq(1L), eq(List.of(3L, 4L)), any(), any(), any()))
+                .thenReturn(0);
+        when(noteRepository.findResponseByIdAndUserId(1L, 1L))
+                .thenReturn(Optional.of(new NoteResponse(1L, "Other", "Edit", null, null, 5L)));
+
+        PreconditionFailedException ex = assertThrows(PreconditionFailedException.class,
+                () -> noteService.updateNote(1L, request, IfMatch.of(3L, 4L)));
+
+        assertEquals("Note is at version 5, not 3 or 4", ex.getMessage());
+    }
+
+    @Test
+    void shouldFailPreconditionWhenAnyVersionIsRequiredButNoteIsMissing() {
+        when(noteRepository.deleteByIdAndUserId(9L, 1L)).thenReturn(0);
+        when(noteRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(PreconditionFailedException.class, () -> noteService.deleteNote(9L, IfMatch.ANY));
+        verify(noteTombstoneRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportMissingNoteRatherThanStaleVersion() {
+        when(noteRepository.deleteByIdAndUserIdAndVersionIn(9L, 1L, List.of(2L))).thenReturn(0);
+        when(noteRepository.findResponseByIdAndUserId(9L, 1L)).thenReturn(Optional.empty());
+        when(noteRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(NoteNotFoundException.class, () -> noteService.deleteNote(9L, IfMatch.of(2L)));
+        verify(noteTombstoneRepository, never()).save(any());
+    }
+
     @Test
     void shouldDeleteNoteSuccessfully() {
-        Note note = new Note(1L, "Delete Me", "Content");
-        note.setUser(mockUser);
+        when(noteRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
 
-        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
         assertDoesNotThrow(() -> noteService.deleteNote(1L));
+        verify(noteRepository, never()).findById(any());
+        verify(noteRepository, never()).existsById(any());
+        verify(noteTombstoneRepository).save(argThat((NoteTombstone tombstone) ->
+                tombstone.getNoteId().equals(1L) && tombstone.getUserId().equals(1L)));
     }
 
     @Test
     void shouldThrowNoteNotFoundExceptionWhenDeletingNonExistentNote() {
-        when(noteRepository.findById(999L)).thenReturn(Optional.empty());
+        when(noteRepository.deleteByIdAndUserId(999L, 1L)).thenReturn(0);
+        when(noteRepository.existsById(999L)).thenReturn(false);
 
         NoteNotFoundException ex = assertThrows(NoteNotFoundException.class,
                 () -> noteService.deleteNote(999L));
 
         assertEquals("Note not found", ex.getMessage());
+        verify(noteTombstoneRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldListFirstPageWithNextCursor() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        NoteResponse newest = responseAt(3L, now);
+        NoteResponse middle = responseAt(2L, now.minusMinutes(1));
+        NoteResponse oldest = responseAt(1L, now.minusMinutes(2));
+
+        when(noteRepository.findFirstPage(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        NotePageResponse page = noteService.listNotes(null, 2);
+
+        assertEquals(2, page.notes().size());
+        assertEquals(3L, page.notes().get(0).id());
+        assertEquals(new NoteCursor(middle.updatedAt(), 2L), NoteCursor.decode(page.nextCursor()));
+        verify(noteRepository).findFirstPage(1L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void shouldListPageAfterCursorWithoutNextCursorOnLastPage() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        NoteCursor cursor = new NoteCursor(now, 5L);
+
+        when(noteRepository.findPageAfter(eq(1L), eq(now), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(responseAt(4L, now.minusMinutes(1))));
+
+        NotePageResponse page = noteService.listNotes(cursor.encode(), 10);
+
+        assertEquals(1, page.notes().size());
+        assertNull(page.nextCursor());
+        verify(noteRepository, never()).findFirstPage(any(), any());
+    }
+
+    @Test
+    void shouldListSummariesWithoutReadingContent() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        NoteSummaryResponse newest = new NoteSummaryResponse(3L, "Third", 5000, "Long body", now, now);
+        NoteSummaryResponse older = new NoteSummaryResponse(2L, "Second", 12, "Short body", now, now.minusMinutes(1));
+
+        when(noteRepository.findSummaryFirstPage(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(newest, older));
+
+        NoteSummaryPageResponse page = noteService.listNoteSummaries(null, 1);
+
+        assertEquals(List.of(newest), page.notes());
+        assertEquals(new NoteCursor(now, 3L), NoteCursor.decode(page.nextCursor()));
+        verify(noteRepository, never()).findFirstPage(any(), any());
+    }
+
+    @Test
+    void shouldListSummaryPageAfterCursor() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        NoteCursor cursor = new NoteCursor(now, 5L);
+
+        when(noteRepository.findSummaryPageAfter(eq(1L), eq(now), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(new NoteSummaryResponse(4L, "Fourth", 3, "abc", now, now.minusMinutes(1))));
+
+        NoteSummaryPageResponse page = noteService.listNoteSummaries(cursor.encode(), 10);
+
+        assertEquals(1, page.notes().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void shouldRejectOutOfRangePageSize() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.listNotes(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> noteService.listNotes(null, NoteService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.listNotes("not-a-cursor", 10));
+    }
+
+    @Test
+    void shouldMergeUpdatesAndTombstonesInWatermarkOrder() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        NoteCursor since = new NoteCursor(now, 0L);
+
+        when(noteRepository.findChangedAfter(1L, now, 0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(responseAt(2L, now.plusMinutes(1)), responseAt(5L, now.plusMinutes(3))));
+        when(noteTombstoneRepository.findDeletedAfter(1L, now, 0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(new NoteTombstone(4L, 1L, now.plusMinutes(2))));
+
+        NoteChangesResponse changes = noteService.listChanges(since.encode(), 2);
+
+        assertEquals(List.of(2L), changes.updated().stream().map(NoteResponse::id).toList());
+        assertEquals(List.of(4L), changes.deleted());
+        assertEquals(new NoteCursor(now.plusMinutes(2), 4L), NoteCursor.decode(changes.since()));
+        assertTrue(changes.hasMore());
+    }
+
+    @Test
+    void shouldHoldWatermarkBehindRecentChanges() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(5);
+        LocalDateTime justNow = LocalDateTime.now();
+        when(noteRepository.findChangedAfter(eq(1L), eq(since), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(responseAt(2L, since.plusMinutes(1)), responseAt(5L, justNow)));
+        when(noteTombstoneRepository.findDeletedAfter(eq(1L), eq(since), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        NoteChangesResponse changes = noteService.listChanges(new NoteCursor(since, 0L).encode(), 10);
+
+        // The recent change is delivered, and will be delivered again with anything that commits late
+        assertEquals(List.of(2L, 5L), changes.updated().stream().map(NoteResponse::id).toList());
+        NoteCursor watermark = NoteCursor.decode(changes.since());
+        assertTrue(watermark.updatedAt().isAfter(since.plusMinutes(1)));
+        assertTrue(watermark.updatedAt().isBefore(justNow.minus(NoteService.SYNC_OVERLAP).plusSeconds(1)));
+    }
+
+    @Test
+    void shouldAdvanceWatermarkThroughBurstOfRecentChanges() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+        when(noteRepository.findChangedAfter(eq(1L), eq(since), eq(4L), any(Pageable.class)))
+                .thenReturn(List.of(responseAt(5L, since), responseAt(6L, since.plusNanos(1000)),
+                        responseAt(7L, since.plusNanos(2000))));
+        when(noteTombstoneRepository.findDeletedAfter(eq(1L), eq(since), eq(4L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        NoteChangesResponse changes = noteService.listChanges(new NoteCursor(since, 4L).encode(), 2);
+
+        // Holding the watermark back here would return the same page forever
+        assertEquals(new NoteCursor(since.plusNanos(1000), 6L), NoteCursor.decode(changes.since()));
+        assertTrue(changes.hasMore());
+    }
+
+    @Test
+    void shouldStartFullSyncWithoutWatermark() {
+        when(noteRepository.findChangedAfter(eq(1L), any(), eq(0L), any(Pageable.class))).thenReturn(List.of());
+        when(noteTombstoneRepository.findDeletedAfter(eq(1L), any(), eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        NoteChangesResponse changes = noteService.listChanges(null, null);
+
+        assertTrue(changes.updated().isEmpty());
+        assertTrue(changes.deleted().isEmpty());
+        assertFalse(changes.hasMore());
+        assertNotNull(changes.since());
+    }
+
+    @Test
+    void shouldReturnSearchResultsInRankOrder() {
+        NoteResponse first = responseAt(1L, LocalDateTime.now());
+        NoteResponse second = responseAt(2L, LocalDateTime.now());
+
+        when(noteSearchIndex.search(1L, "groceries", 0, 3)).thenReturn(List.of(
+                new NoteSearchHit(2L, 3.0), new NoteSearchHit(1L, 1.5)));
+        when(noteRepository.findResponsesByIdIn(List.of(2L, 1L), 1L)).thenReturn(List.of(first, second));
+
+        NoteSearchResponse result = noteService.searchNotes(" groceries ", 0, 2);
+
+        assertEquals(List.of(2L, 1L), result.notes().stream().map(NoteResponse::id).toList());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void shouldReportNextSearchPageAndSkipStaleHits() {
+        when(noteSearchIndex.search(1L, "milk", 2, 3)).thenReturn(List.of(
+                new NoteSearchHit(5L, 2.0), new NoteSearchHit(4L, 1.0), new NoteSearchHit(3L, 0.5)));
+        when(noteRepository.findResponsesByIdIn(List.of(5L, 4L), 1L)).thenReturn(List.of(responseAt(4L, LocalDateTime.now())));
+
+        NoteSearchResponse result = noteService.searchNotes("milk", 1, 2);
+
+        assertEquals(1, result.notes().size());
+        assertEquals(4L, result.notes().get(0).id());
+        assertTrue(result.hasNext());
+    }
+
+    @Test
+    void shouldRejectBlankSearchQuery() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.searchNotes("  ", null, null));
+        assertThrows(IllegalArgumentException.class, () -> noteService.searchNotes("milk", -1, null));
+        verifyNoInteractions(noteSearchIndex);
+    }
+
+    @Test
+    void shouldRejectSearchPageWhoseOffsetOverflows() {
+        assertThrows(IllegalArgumentException.class, () -> noteService.searchNotes("milk", Integer.MAX_VALUE, 100));
+        verifyNoInteractions(noteSearchIndex);
+    }
+
+    private NoteResponse responseAt(Long id, LocalDateTime updatedAt) {
+        return new NoteResponse(id, "Note " + id, "Content " + id, updatedAt, updatedAt);
     }
 
 }
@@ -2,10 +2,12 @@ package com.amalitech.notesApi.service;
 
 import com.amalitech.notesApi.dto.request.AuthRequest;
 import com.amalitech.notesApi.dto.response.UserResponse;
+import com.amalitech.notesApi.exceptions.TooManyRequestsException;
 import com.amalitech.notesApi.models.User;
 import com.amalitech.notesApi.repository.UserRepository;
 import com.amalitech.notesApi.security.JwtUtil;
-import com.amalitech.notesApi.security.PasswordUtils;
+import com.amalitech.notesApi.security.PasswordHasher;
+import com.amalitech.notesApi.security.UserIdentityCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +19,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +34,12 @@ public class UserServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -91,10 +101,27 @@ public class UserServiceTest {
     void shouldDeleteUserWhenExists() {
         User user = new User();
         user.setId(1L);
+        user.setEmail("email@gmail.com");
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         userService.deleteUser(1L);
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userIdentityCache).invalidate(1L, "email@gmail.com");
+    }
+
+    @Test
+    void shouldInvalidateCachedIdentityOfPreviousEmailOnUpdate() {
+        User user = new User("old@gmail.com", "old-hash");
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(passwordHasher.hash("Newpassword")).thenReturn(CompletableFuture.completedFuture("new-hash"));
+
+        UserResponse result = userService.updateUser(1L, new AuthRequest("new@gmail.com", "Newpassword")).join();
+
+        assertEquals("new@gmail.com", result.email());
+        assertEquals(1, user.getTokenVersion());
+        verify(userRepository).save(user);
+        verify(userIdentityCache).invalidate(1L, "old@gmail.com");
     }
 
     @Test
@@ -107,10 +134,12 @@ public class UserServiceTest {
         when(userRepository.existsByEmail(userRequest.email()))
                 .thenReturn(false);
 
+        when(passwordHasher.hash("Testpassword"))
+                .thenReturn(CompletableFuture.completedFuture("hashed"));
         when(userRepository.save(any(User.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
-        userService.createUser(userRequest);
+        userService.createUser(userRequest).join();
 
         verify(userRepository, times(1))
                 .existsByEmail(userRequest.email());
@@ -130,11 +159,55 @@ public class UserServiceTest {
         AuthRequest userRequest = new AuthRequest(user.getEmail(), "wrong-password");
 
         when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("wrong-password", "Testpassword"))
+                .thenReturn(CompletableFuture.completedFuture(false));
 
-        assertThrows(IllegalArgumentException.class, () -> userService.loginUser(userRequest));
+        CompletionException ex = assertThrows(CompletionException.class, () -> userService.loginUser(userRequest).join());
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
         verify(userRepository, times(1)).findByEmail(user.getEmail());
     }
 
+    @Test
+    void shouldIssueTokenAfterPasswordVerifiedOnHashingPool() {
+        User user = new User("email@gmail.com", "hashed");
+        AuthRequest userRequest = new AuthRequest(user.getEmail(), "Testpassword");
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("Testpassword", "hashed"))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(jwtUtil.generateToken(user)).thenReturn("token");
+
+        assertEquals("token", userService.loginUser(userRequest).join().token());
+        verify(userRepository, never()).replacePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void shouldRehashPasswordStoredWithOlderCostOnLogin() {
+        User user = new User("email@gmail.com", "old-hash");
+        user.setId(1L);
+        AuthRequest userRequest = new AuthRequest(user.getEmail(), "Testpassword");
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(passwordHasher.verify("Testpassword", "old-hash"))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        when(passwordHasher.needsRehash("old-hash")).thenReturn(true);
+        when(passwordHasher.hash("Testpassword")).thenReturn(CompletableFuture.completedFuture("new-hash"));
+        when(jwtUtil.generateToken(user)).thenReturn("token");
+
+        userService.loginUser(userRequest).join();
+
+        verify(userRepository).replacePasswordHash(1L, "old-hash", "new-hash");
+    }
+
+    @Test
+    void shouldFailFastWhenLoginUserDoesNotExist() {
+        AuthRequest userRequest = new AuthRequest("missing@gmail.com", "Testpassword");
+        when(userRepository.findByEmail("missing@gmail.com")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.loginUser(userRequest));
+        verifyNoInteractions(passwordHasher);
+    }
+
     @Test
     void getUserById_usesRepositoryOnce_whenCalledTwice() {
         User user = new User();
@@ -166,14 +239,16 @@ public class UserServiceTest {
         existingUser.setPassword("oldPassword");
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(passwordHasher.hash("newPassword")).thenReturn(CompletableFuture.completedFuture("hashed"));
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        UserResponse response = userService.updateUser(userId, updateRequest);
+        UserResponse response = userService.updateUser(userId, updateRequest).join();
 
         // Assert
         assertNotNull(response);
         assertEquals("newemail@example.com", response.email());
+        assertEquals(1, existingUser.getTokenVersion());
         verify(userRepository, times(1)).findById(userId);
         verify(userRepository, times(1)).save(existingUser);
     }
@@ -196,6 +271,20 @@ public class UserServiceTest {
         verify(userRepository, never()).save(any());
     }
 
+    @Test
+    void updateUser_hashingPoolFull_rejectsWithoutBlocking() {
+        // Arrange
+        User existingUser = new User("oldemail@example.com", "oldPassword");
+        existingUser.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(passwordHasher.hash("newPassword")).thenThrow(new TooManyRequestsException("busy", 1));
+
+        // Act & Assert
+        assertThrows(TooManyRequestsException.class,
+                () -> userService.updateUser(1L, new AuthRequest("newemail@example.com", "newPassword")));
+        verify(userRepository, never()).save(any());
+    }
+
     @Test
     void loadUserByUsername_userExists_returnsUserDetails() {
         // Arrange